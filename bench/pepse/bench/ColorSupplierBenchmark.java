@@ -0,0 +1,60 @@
+package pepse.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.util.ColorSupplier;
+
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the color approximation used for every block, trunk and leaf.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ColorSupplierBenchmark {
+    /** The approximated base color. */
+    private static final Color BASE_COLOR = new Color(212, 123, 74);
+
+    /** The maximal per-channel difference of the keyed colors. */
+    private static final int COLOR_DELTA = 10;
+
+    /** The seed of the keyed colors. */
+    private static final int SEED = 1;
+
+    /** The x-coordinate of the next keyed color, so that each call picks a different one. */
+    private int x;
+
+    /**
+     * Approximates the base color.
+     *
+     * @return The approximated color.
+     */
+    @Benchmark
+    public Color approximateColor() {
+        return ColorSupplier.approximateColor(BASE_COLOR);
+    }
+
+    /**
+     * Picks the base color's approximation keyed by a seed and a position.
+     *
+     * @return The packed ARGB color.
+     */
+    @Benchmark
+    public int approximateArgb() {
+        return ColorSupplier.approximateArgb(BASE_COLOR.getRGB(), COLOR_DELTA, SEED, x++, 0);
+    }
+}
@@ -0,0 +1,74 @@
+package pepse.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.world.JumpObserver;
+import pepse.world.trees.Flora;
+import pepse.world.trees.Tree;
+import pepse.world.trees.FloraData;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the flora: planning and creating the trees of a range, and creating a single tree.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FloraBenchmark {
+    /** The x-coordinate of the benchmarked single tree. */
+    private static final int TREE_LOCATION = 300;
+
+    /**
+     * Plans the trees of the range without creating game objects.
+     *
+     * @param state The benchmark state.
+     * @return The planned trees.
+     */
+    @Benchmark
+    public FloraData planInRange(WorldGenerationState state) {
+        return createFlora(state).planInRange(0, state.width);
+    }
+
+    /**
+     * Creates the game objects of the trees of the range.
+     *
+     * @param state The benchmark state.
+     * @return The created tree objects.
+     */
+    @Benchmark
+    public List<JumpObserver> createInRange(WorldGenerationState state) {
+        return createFlora(state).createInRange(0, state.width);
+    }
+
+    /**
+     * Creates a single tree, planning included.
+     *
+     * @param state The benchmark state.
+     * @return The created tree.
+     */
+    @Benchmark
+    public Tree tree(WorldGenerationState state) {
+        return new Tree(TREE_LOCATION, state.terrain::groundHeightAt, state.treePools, state.seed);
+    }
+
+    /**
+     * Creates a flora over the state's terrain.
+     *
+     * @param state The benchmark state.
+     * @return The flora.
+     */
+    private static Flora createFlora(WorldGenerationState state) {
+        return new Flora(state.terrain::groundHeightAt, state.treePools, state.seed);
+    }
+}
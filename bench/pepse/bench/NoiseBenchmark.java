@@ -0,0 +1,79 @@
+package pepse.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.util.NoiseGenerator;
+import pepse.world.Block;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the noise of a range of block columns, one sample at a time and in bulk.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoiseBenchmark {
+    /** The noise factor used by the terrain. */
+    private static final double FACTOR = Block.SIZE * 20;
+
+    /** The start point used by the terrain for a 600 pixel high window. */
+    private static final int START_POINT = 400;
+
+    @Param({"1", "1234"})
+    private int seed;
+
+    @Param({"480", "4800", "48000"})
+    private int width;
+
+    private NoiseGenerator noiseGenerator;
+    private float[] out;
+
+    /**
+     * Creates the noise generator for the current seed.
+     */
+    @Setup
+    public void setUp() {
+        noiseGenerator = new NoiseGenerator(seed, START_POINT);
+        out = new float[width / Block.SIZE];
+    }
+
+    /**
+     * Samples the noise of every column in the range with noise().
+     *
+     * @return The sum of the samples.
+     */
+    @Benchmark
+    public double noise() {
+        double sum = 0;
+        for (int x = 0; x < width; x += Block.SIZE) {
+            sum += noiseGenerator.noise(x, FACTOR);
+        }
+        return sum;
+    }
+
+    /**
+     * Samples the noise of every column in the range with fill().
+     *
+     * @return The filled samples.
+     */
+    @Benchmark
+    public float[] fill() {
+        noiseGenerator.fill(out, 0, Block.SIZE, out.length, FACTOR);
+        return out;
+    }
+}
@@ -0,0 +1,71 @@
+package pepse.bench;
+
+import danogl.GameObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.world.Block;
+import pepse.world.Terrain;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the terrain: ground heights and the creation of terrain objects.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TerrainBenchmark {
+    /** Offset that moves an x-coordinate off the block grid, bypassing the height cache. */
+    private static final float OFF_GRID = 0.5f;
+
+    /**
+     * Gets the ground height of every column in the range, served by the height cache once warm.
+     *
+     * @param state The benchmark state.
+     * @return The sum of the heights.
+     */
+    @Benchmark
+    public double groundHeightAt(WorldGenerationState state) {
+        double sum = 0;
+        for (int x = 0; x < state.width; x += Block.SIZE) {
+            sum += state.terrain.groundHeightAt(x);
+        }
+        return sum;
+    }
+
+    /**
+     * Gets the ground height between every two columns in the range, always computing the noise.
+     *
+     * @param state The benchmark state.
+     * @return The sum of the heights.
+     */
+    @Benchmark
+    public double groundHeightAtOffGrid(WorldGenerationState state) {
+        double sum = 0;
+        for (int x = 0; x < state.width; x += Block.SIZE) {
+            sum += state.terrain.groundHeightAt(x + OFF_GRID);
+        }
+        return sum;
+    }
+
+    /**
+     * Creates the terrain objects of the range.
+     *
+     * @param state The benchmark state.
+     * @return The created terrain objects.
+     */
+    @Benchmark
+    public List<GameObject> createInRange(WorldGenerationState state) {
+        return state.terrain.createInRange(0, state.width);
+    }
+}
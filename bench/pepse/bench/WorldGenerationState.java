@@ -0,0 +1,56 @@
+package pepse.bench;
+
+import danogl.util.Vector2;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pepse.world.Terrain;
+import pepse.world.trees.JumpAnimation;
+import pepse.world.trees.TreePools;
+
+/**
+ * Shared benchmark state: a terrain for the given seed, the pools trees are created from and the width of
+ * the range to generate.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+@State(Scope.Benchmark)
+public class WorldGenerationState {
+    /**
+     * The dimensions of the window the world is generated for.
+     */
+    public static final Vector2 WINDOW_DIMENSIONS = new Vector2(1000, 600);
+
+    /**
+     * The seed of the world.
+     */
+    @Param({"1", "1234"})
+    public int seed;
+
+    /**
+     * The width of the generated range, in pixels.
+     */
+    @Param({"480", "4800", "48000"})
+    public int width;
+
+    /**
+     * The terrain of the world.
+     */
+    public Terrain terrain;
+
+    /**
+     * The pools the benchmarked trees are created from. They keep no idle objects, so every tree part is
+     * constructed anew.
+     */
+    public TreePools treePools;
+
+    /**
+     * Creates the terrain for the current seed and the tree pools.
+     */
+    @Setup
+    public void setUp() {
+        terrain = new Terrain(WINDOW_DIMENSIONS, seed);
+        treePools = new TreePools(energy -> { }, new JumpAnimation(), seed, 0);
+    }
+}
@@ -11,23 +11,27 @@ import danogl.gui.WindowController;
 import danogl.gui.rendering.Camera;
 import danogl.gui.rendering.TextRenderable;
 import danogl.util.Vector2;
+import pepse.diagnostics.EngineUpdateEvent;
+import pepse.diagnostics.LayerObjectsEvent;
+import pepse.util.FixedTimestep;
 import pepse.world.*;
 import pepse.world.GUI.EnergyDisplay;
+import pepse.world.chunks.ChunkStore;
 import pepse.world.daynight.Night;
 import pepse.world.daynight.Sun;
 import pepse.world.daynight.SunHalo;
-import pepse.world.trees.Flora;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Objects;
-
-import static pepse.world.trees.Tree.LEAF_TAG;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The PepseGameManager class is responsible for managing the game.
  * It initializes the game window and adds the necessary game objects.
+ * The game is simulated in fixed ticks, independently of the frame rate; the avatar and the camera are
+ * drawn interpolated between ticks. Engine updates and the number of objects in each layer are recorded
+ * as JDK Flight Recorder events.
  *
  * @author Dana Zilca and Noam Nachum
  */
@@ -43,31 +47,81 @@ public class PepseGameManager extends GameManager {
      */
     private static final int TERRAIN_SEED = 1;
 
+    /**
+     * The system property holding the directory visited chunks are kept in, if any.
+     */
+    private static final String STORE_PROPERTY = "pepse.world.store";
+
+    /**
+     * The system property holding the number of simulation ticks per simulated second.
+     */
+    private static final String TICK_RATE_PROPERTY = "pepse.tickRate";
+
+    /**
+     * The system property holding the number of simulated seconds per real second.
+     */
+    private static final String TIME_SCALE_PROPERTY = "pepse.timeScale";
+
+    /**
+     * The default number of simulation ticks per simulated second.
+     */
+    private static final float DEFAULT_TICK_RATE = 60;
+
+    /**
+     * The default number of simulated seconds per real second.
+     */
+    private static final float DEFAULT_TIME_SCALE = 1;
+
+    /**
+     * The time between recordings of the number of objects in each layer, in seconds.
+     */
+    private static final float LAYER_OBJECTS_PERIOD = 1;
+
+    /**
+     * The layers whose number of objects is recorded.
+     */
+    private static final int[] RECORDED_LAYERS = {
+            Layer.BACKGROUND, Layer.STATIC_OBJECTS, Layer.DEFAULT, Layer.FOREGROUND, Layer.UI
+    };
+
+    /**
+     * Nanoseconds in a second.
+     */
+    private static final float NANOS_PER_SECOND = 1e9f;
+
+    /**
+     * How long the JVM's shutdown waits for the game loop to save and close the world, in milliseconds.
+     */
+    private static final long CLOSE_TIMEOUT_MILLIS = 2000;
+
     /**
      * The background width.
      */
     public static float BACKGROUND_WIDTH;
-    private int terrainStart = 0;
-    private int terrainEnd = 0;
     private Avatar avatar;
     private Vector2 windowDimensions;
-    private List<GameObject> updatableGameObjects;
+    private World world;
+    private FixedTimestep timestep;
+    private float sinceLayerObjects;
+    private volatile boolean closing;
+    private final CountDownLatch closed = new CountDownLatch(1);
 
     /**
      * Constructor for PepseGameManager.
      */
     public PepseGameManager() {
         super();
-        this.updatableGameObjects = new ArrayList<>();
     }
 
     /**
-     * The main method to run the game.
+     * The main method to run the game. The world is saved and closed once the game loop ends.
      *
      * @param args Command line arguments.
      */
     public static void main(String[] args) {
-        new PepseGameManager().run();
+        PepseGameManager game = new PepseGameManager();
+        game.run();
+        game.closeWorld();
     }
 
     /**
@@ -91,16 +145,31 @@ public class PepseGameManager extends GameManager {
         initNightCycle(windowDimensions);
         initSunHalo(windowDimensions);
         initAvatar(inputListener, imageReader);
-        this.terrainStart = (int) (avatar.getCenter().x() - (BACKGROUND_WIDTH));
-        this.terrainEnd = (int) (avatar.getCenter().x() + (BACKGROUND_WIDTH));
-        Terrain terrain = createTerrain(terrainStart, terrainEnd);
-        createFlora(terrain, terrainStart, terrainEnd);
+        initWorld();
         initEnergyDisplay(avatar);
         setCamera(new Camera(avatar,
                 Vector2.ZERO,
                 windowDimensions,
                 windowDimensions
         ));
+        initTimestep();
+    }
+
+    /**
+     * Initializes the fixed simulation timestep from the TICK_RATE_PROPERTY and TIME_SCALE_PROPERTY system
+     * properties, and interpolates the avatar and the camera that follows it between ticks.
+     */
+    private void initTimestep() {
+        try {
+            this.timestep = new FixedTimestep(
+                    Float.parseFloat(System.getProperty(TICK_RATE_PROPERTY, String.valueOf(DEFAULT_TICK_RATE))),
+                    Float.parseFloat(System.getProperty(TIME_SCALE_PROPERTY, String.valueOf(DEFAULT_TIME_SCALE))));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e);
+            this.timestep = new FixedTimestep(DEFAULT_TICK_RATE, DEFAULT_TIME_SCALE);
+        }
+        timestep.interpolate(avatar);
+        timestep.interpolate(camera());
     }
 
     /**
@@ -115,23 +184,71 @@ public class PepseGameManager extends GameManager {
     }
 
     /**
-     * Creates the terrain within given range.
+     * Initializes the world and loads the terrain and flora around the avatar.
+     * A background width is kept loaded on each side of the avatar. When the STORE_PROPERTY system
+     * property is set, visited chunks are kept in that directory and saved again when the game exits:
+     * when the game loop ends, or, if the JVM is shut down first, e.g. by Ctrl-C, on the game thread's
+     * next frame, which the shutdown waits for.
+     * The world collides the avatar with its static objects itself, so the engine does not test the
+     * avatar's layer against theirs.
+     */
+    private void initWorld() {
+        gameObjects().layers().shouldLayersCollide(Layer.DEFAULT, Layer.STATIC_OBJECTS, false);
+        this.world = new World(windowDimensions,
+                TERRAIN_SEED,
+                BACKGROUND_WIDTH,
+                avatar,
+                WorldObjects.of(gameObjects()),
+                openChunkStore());
+        world.loadAroundAvatar();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::awaitClose));
+    }
+
+    /**
+     * Asks the game loop to save and close the world, and waits up to CLOSE_TIMEOUT_MILLIS for it to do
+     * so. Runs on the JVM's shutdown hook thread, which never touches the world itself, since the game
+     * thread may still be in the middle of a frame.
+     */
+    private void awaitClose() {
+        closing = true;
+        try {
+            closed.await(CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Saves the loaded chunks and shuts the world down, once. Called on the game thread only, either when
+     * the game loop ends or on the first frame after the JVM started shutting down.
+     */
+    private void closeWorld() {
+        if (closed.getCount() == 0) {
+            return;
+        }
+        if (world != null) {
+            world.shutdown();
+        }
+        closed.countDown();
+    }
+
+    /**
+     * Opens the store of visited chunks named by the STORE_PROPERTY system property.
      *
-     * @param rangeStart Where in the world to start creating terrain.
-     * @param rangeEnd   Where in the world to stop creating terrain.
+     * @return The chunk store, or null if the property is not set or the store cannot be opened, e.g.
+     * because it holds the chunks of another world.
      */
-    private Terrain createTerrain(int rangeStart, int rangeEnd) {
-        Terrain terrain = new Terrain(windowDimensions, TERRAIN_SEED);
+    private ChunkStore openChunkStore() {
+        String path = System.getProperty(STORE_PROPERTY);
+        if (path == null) {
+            return null;
+        }
         try {
-            List<Block> blocks = terrain.createInRange(rangeStart, rangeEnd);
-            for (Block block : blocks) {
-                gameObjects().addGameObject(block, Layer.STATIC_OBJECTS);
-                updatableGameObjects.add(block);
-            }
-        } catch (IllegalArgumentException e) {
+            return new ChunkStore(Paths.get(path), TERRAIN_SEED, Terrain.baseHeightOf(windowDimensions));
+        } catch (IOException e) {
             System.err.println(e);
+            return null;
         }
-        return terrain;
     }
 
     /**
@@ -193,78 +310,64 @@ public class PepseGameManager extends GameManager {
     }
 
     /**
-     * Creates the flora (trees and leaves) within given range.
+     * Advances the game by the time of a frame, in as many fixed ticks as have accumulated, then streams
+     * the world around the avatar once for the whole frame. Once the JVM is shutting down, closes the
+     * world instead and stops advancing the game.
      *
-     * @param terrain    Terrain in world to create the flora.
-     * @param rangeStart Where in world to start creating terrain.
-     * @param rangeEnd   Where in world to stop creating terrain.
+     * @param deltaTime The time that has passed since the last frame.
      */
-    private void createFlora(Terrain terrain, int rangeStart, int rangeEnd) {
-        Flora flora = new Flora(terrain::groundHeightAt,
-                avatar::addEnergy,
-                TERRAIN_SEED);
-
-        try {
-            List<JumpObserver> treesObjects = flora.createInRange(rangeStart, rangeEnd);
-
-            for (JumpObserver jumpObserver : treesObjects) {
-                avatar.addJumpObserver(jumpObserver);
-                GameObject object = (GameObject) jumpObserver;
-                updatableGameObjects.add(object);
-                if (Objects.equals(object.getTag(), LEAF_TAG)) {
-                    gameObjects().addGameObject(object, Layer.FOREGROUND);
-                } else {
-                    gameObjects().addGameObject(object, Layer.STATIC_OBJECTS);
-                }
-            }
-        } catch (IllegalArgumentException e) {
-            System.err.println(e);
+    @Override
+    public void update(float deltaTime) {
+        if (closing) {
+            closeWorld();
+            return;
         }
+        timestep.advance(deltaTime, this::tick);
+        world.stream();
+        recordLayerObjects(deltaTime);
     }
 
     /**
-     * Updates the game world by generating new terrain and flora based on the avatar's position.
+     * Advances the game by a single tick: updates the game objects, then the world, which collides the
+     * avatar with it and animates it.
      */
-    @Override
-    public void update(float deltaTime) {
-        super.update(deltaTime);
-        float halfBackground = BACKGROUND_WIDTH / 2;
-        if (avatar.getCenter().x() - terrainStart < halfBackground ||
-                terrainEnd - avatar.getCenter().x() < halfBackground ) {
-            int newTerrainStart = (int) (avatar.getCenter().x() - BACKGROUND_WIDTH);
-            int newTerrainEnd = (int) (avatar.getCenter().x() + BACKGROUND_WIDTH);
-            if (newTerrainStart < terrainStart) {
-                Terrain newTerrain = createTerrain(newTerrainStart, terrainStart);
-                createFlora(newTerrain, newTerrainStart, terrainStart);
-            }
-            if (newTerrainEnd > terrainEnd) {
-                Terrain newTerrain1 = createTerrain(terrainEnd, newTerrainEnd);
-                createFlora(newTerrain1, terrainEnd, newTerrainEnd);
-            }
-            terrainStart = newTerrainStart;
-            terrainEnd = newTerrainEnd;
-            removeGameObjectsOutofRange(terrainStart, terrainEnd);
+    private void tick() {
+        float tickTime = timestep.getTickTime();
+        EngineUpdateEvent event = new EngineUpdateEvent();
+        event.begin();
+        super.update(tickTime);
+        if (event.shouldCommit()) {
+            event.tickTime = (long) (tickTime * NANOS_PER_SECOND);
+            event.commit();
         }
+        world.update(tickTime);
     }
 
     /**
-     * Removes game objects that are outside the specified range.
+     * Records the number of objects in each layer, once every LAYER_OBJECTS_PERIOD seconds, if the
+     * event is enabled in the running recording. The objects are counted on the game thread, between
+     * updates, where the game object collection is not being changed.
      *
-     * @param rangeStart The start of the range.
-     * @param rangeEnd   The end of the range.
+     * @param deltaTime The time that has passed since the last frame.
      */
-    private void removeGameObjectsOutofRange(float rangeStart, float rangeEnd) {
-        Iterator<GameObject> iterator = updatableGameObjects.iterator();
-
-        while (iterator.hasNext()) {
-            GameObject gameObject = iterator.next();
-            float x = gameObject.getCenter().x();
-            if (x > rangeEnd || x < rangeStart) {
-                gameObjects().removeGameObject(gameObject,
-                        gameObject.getTag().equals(LEAF_TAG) ?
-                                Layer.FOREGROUND : Layer.STATIC_OBJECTS);
-                iterator.remove();
+    private void recordLayerObjects(float deltaTime) {
+        sinceLayerObjects += deltaTime;
+        if (sinceLayerObjects < LAYER_OBJECTS_PERIOD) {
+            return;
+        }
+        sinceLayerObjects = 0;
+        for (int layer : RECORDED_LAYERS) {
+            LayerObjectsEvent event = new LayerObjectsEvent();
+            if (!event.isEnabled()) {
+                return;
+            }
+            int objects = 0;
+            for (GameObject ignored : gameObjects().objectsInLayer(layer)) {
+                objects++;
             }
+            event.layer = layer;
+            event.objects = objects;
+            event.commit();
         }
     }
 }
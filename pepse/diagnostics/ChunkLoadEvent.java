@@ -0,0 +1,52 @@
+package pepse.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A JDK Flight Recorder event covering the creation of the objects of a generated chunk, with the time
+ * spent creating its terrain and its flora.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+@Name("pepse.ChunkLoad")
+@Label("Chunk Load")
+@Category({"Pepse", "World", "Chunks"})
+@Description("Creating the terrain and flora of a generated chunk")
+public class ChunkLoadEvent extends Event {
+    /**
+     * The index of the chunk.
+     */
+    @Label("Chunk Index")
+    public int chunkIndex;
+
+    /**
+     * The number of terrain objects created.
+     */
+    @Label("Terrain Objects")
+    public int terrainObjects;
+
+    /**
+     * The number of flora objects created.
+     */
+    @Label("Flora Objects")
+    public int floraObjects;
+
+    /**
+     * The time spent creating the terrain.
+     */
+    @Label("Terrain Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long terrainTime;
+
+    /**
+     * The time spent creating the flora.
+     */
+    @Label("Flora Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long floraTime;
+}
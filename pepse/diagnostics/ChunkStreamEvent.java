@@ -0,0 +1,31 @@
+package pepse.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JDK Flight Recorder event covering the check whether the world should be extended or shrunk around
+ * the avatar, including the chunks it loads and unloads.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+@Name("pepse.ChunkStream")
+@Label("Chunk Streaming")
+@Category({"Pepse", "World"})
+@Description("Loading and unloading chunks around the avatar")
+public class ChunkStreamEvent extends Event {
+    /**
+     * The x-coordinate the chunks are streamed around.
+     */
+    @Label("Avatar X")
+    public float avatarX;
+
+    /**
+     * The number of loaded chunks after streaming.
+     */
+    @Label("Loaded Chunks")
+    public int loadedChunks;
+}
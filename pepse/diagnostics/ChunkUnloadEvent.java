@@ -0,0 +1,31 @@
+package pepse.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JDK Flight Recorder event covering the unloading of a chunk, which saves its fruit and queues its
+ * objects for removal.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+@Name("pepse.ChunkUnload")
+@Label("Chunk Unload")
+@Category({"Pepse", "World", "Chunks"})
+@Description("Saving a chunk and queueing its objects for removal")
+public class ChunkUnloadEvent extends Event {
+    /**
+     * The index of the chunk.
+     */
+    @Label("Chunk Index")
+    public int chunkIndex;
+
+    /**
+     * The number of objects queued for removal.
+     */
+    @Label("Objects")
+    public int objects;
+}
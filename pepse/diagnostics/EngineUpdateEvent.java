@@ -0,0 +1,27 @@
+package pepse.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A JDK Flight Recorder event covering the engine's update of all the game objects and their collisions
+ * in a single tick.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+@Name("pepse.EngineUpdate")
+@Label("Engine Update")
+@Category({"Pepse", "Engine"})
+@Description("The engine updating the game objects and colliding them")
+public class EngineUpdateEvent extends Event {
+    /**
+     * The simulated time of the tick.
+     */
+    @Label("Tick Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long tickTime;
+}
@@ -0,0 +1,30 @@
+package pepse.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JDK Flight Recorder event covering the notification of the jump observers near the avatar.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+@Name("pepse.Jump")
+@Label("Jump")
+@Category({"Pepse", "Avatar"})
+@Description("Notifying the jump observers near the avatar")
+public class JumpEvent extends Event {
+    /**
+     * The x-coordinate of the avatar.
+     */
+    @Label("Avatar X")
+    public float avatarX;
+
+    /**
+     * The number of notified observers.
+     */
+    @Label("Observers")
+    public int observers;
+}
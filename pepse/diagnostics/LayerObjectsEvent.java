@@ -0,0 +1,32 @@
+package pepse.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A periodic JDK Flight Recorder event holding the number of game objects in a layer.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+@Name("pepse.LayerObjects")
+@Label("Layer Objects")
+@Category({"Pepse", "Engine"})
+@Description("The number of game objects in a layer")
+@StackTrace(false)
+public class LayerObjectsEvent extends Event {
+    /**
+     * The layer.
+     */
+    @Label("Layer")
+    public int layer;
+
+    /**
+     * The number of game objects in the layer.
+     */
+    @Label("Objects")
+    public int objects;
+}
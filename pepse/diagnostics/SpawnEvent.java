@@ -0,0 +1,31 @@
+package pepse.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JDK Flight Recorder event covering the objects added to and removed from the game in a single
+ * frame, within the spawn budget.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+@Name("pepse.Spawn")
+@Label("Spawn")
+@Category({"Pepse", "World", "Chunks"})
+@Description("Adding and removing the objects of loaded and unloaded chunks")
+public class SpawnEvent extends Event {
+    /**
+     * The number of objects added and removed.
+     */
+    @Label("Operations")
+    public int operations;
+
+    /**
+     * The number of objects still waiting to be added or removed.
+     */
+    @Label("Pending")
+    public int pending;
+}
@@ -0,0 +1,32 @@
+package pepse.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JDK Flight Recorder event covering the update of the world in a single tick: collisions and the
+ * shared animations. Chunk streaming and spawning run once per frame instead, and are recorded by
+ * {@link ChunkStreamEvent} and {@link SpawnEvent}.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+@Name("pepse.WorldUpdate")
+@Label("World Update")
+@Category({"Pepse", "World"})
+@Description("A tick of the world's collisions and shared animations, after the game objects were updated")
+public class WorldUpdateEvent extends Event {
+    /**
+     * The number of loaded chunks after the update.
+     */
+    @Label("Loaded Chunks")
+    public int loadedChunks;
+
+    /**
+     * The number of objects still waiting to be added or removed after the update.
+     */
+    @Label("Pending Spawns")
+    public int pendingSpawns;
+}
@@ -0,0 +1,184 @@
+package pepse.headless;
+
+import danogl.gui.rendering.RectangleRenderable;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import pepse.world.Avatar;
+import pepse.world.Block;
+import pepse.world.collisions.CollisionSystem;
+
+import java.awt.Color;
+
+/**
+ * Checks how the avatar collides with the terrain through the world's {@link CollisionSystem}, without a
+ * window: the avatar must run across a row of flush blocks as far as it runs across a single wide block,
+ * without catching on the seams between them, and must still be stopped by a wall. Prints the result of
+ * each check, and exits with a non-zero status if any of them fails.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public class CollisionCheck {
+    /** The number of ticks per simulated second. */
+    private static final float TICK_RATE = 60;
+
+    /** The number of ticks each check runs. */
+    private static final int TICKS = 120;
+
+    /** The number of blocks in the row of ground. */
+    private static final int GROUND_BLOCKS = 40;
+
+    /** The y-coordinate of the top of the ground. */
+    private static final float GROUND_Y = 20 * Block.SIZE;
+
+    /** The x-coordinate the avatar starts at when running right, before its offset. */
+    private static final float START_X = 3 * Block.SIZE;
+
+    /** The x-coordinate the avatar starts at when running left, before its offset. */
+    private static final float START_X_LEFT = (GROUND_BLOCKS - 3) * Block.SIZE - Avatar.AVATAR_SIZE;
+
+    /**
+     * The number of offsets within a block the avatar starts at, so that it reaches the seams between
+     * blocks at every depth.
+     */
+    private static final int START_OFFSETS = 64;
+
+    /** The column of the ground the wall stands on. */
+    private static final int WALL_COLUMN = 20;
+
+    /** The height of the wall, in blocks. */
+    private static final int WALL_BLOCKS = 3;
+
+    /** How far the avatar may be from where it is expected to end. */
+    private static final float TOLERANCE = 1;
+
+    /** The script running the avatar to the right for the whole check. */
+    private static final String RUN_RIGHT = "right:1000";
+
+    /** The script running the avatar to the left for the whole check. */
+    private static final String RUN_LEFT = "left:1000";
+
+    /** Check result format. */
+    private static final String RESULT = "%s: %s (avatar at %.1f, %.1f)%n";
+
+    /**
+     * The CollisionCheck is run from the command line and is never instantiated.
+     */
+    private CollisionCheck() {
+    }
+
+    /**
+     * Runs the checks and prints their results.
+     *
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        boolean passed = checkFlatGround(START_X, RUN_RIGHT) & checkFlatGround(START_X_LEFT, RUN_LEFT) &
+                checkWall();
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Checks that the avatar runs across a row of flush blocks as far as across a single block as wide as
+     * the row, standing on top of them, from every start offset.
+     *
+     * @param startX The x-coordinate the avatar starts at, before its offset.
+     * @param script The script running the avatar.
+     * @return True if the check passed.
+     */
+    private static boolean checkFlatGround(float startX, String script) {
+        String name = "run across flush blocks (" + script + ")";
+        Vector2 end = null;
+        for (int offset = 0; offset < START_OFFSETS; offset++) {
+            float offsetX = startX + offset * (float) Block.SIZE / START_OFFSETS;
+            Vector2 expected = run(createGround(false), offsetX, script);
+            end = run(createGround(true), offsetX, script);
+            if (Math.abs(end.x() - expected.x()) > TOLERANCE ||
+                    Math.abs(end.y() + Avatar.AVATAR_SIZE - GROUND_Y) > TOLERANCE) {
+                return report(name, false, end);
+            }
+        }
+        return report(name, true, end);
+    }
+
+    /**
+     * Checks that the avatar is stopped by a wall standing on the ground, without passing through it.
+     *
+     * @return True if the check passed.
+     */
+    private static boolean checkWall() {
+        CollisionSystem collisions = createGround(true);
+        Renderable renderable = new RectangleRenderable(Color.GRAY);
+        for (int i = 1; i <= WALL_BLOCKS; i++) {
+            collisions.addStatic(new Block(new Vector2(WALL_COLUMN * Block.SIZE, GROUND_Y - i * Block.SIZE),
+                    renderable));
+        }
+        Vector2 end = run(collisions, START_X, RUN_RIGHT);
+        boolean passed = Math.abs(end.x() + Avatar.AVATAR_SIZE - WALL_COLUMN * Block.SIZE) <= TOLERANCE &&
+                Math.abs(end.y() + Avatar.AVATAR_SIZE - GROUND_Y) <= TOLERANCE;
+        return report("stop at a wall", passed, end);
+    }
+
+    /**
+     * Creates a collision system holding the ground: a row of flush blocks, or a single block as wide as
+     * the row.
+     *
+     * @param flush Whether the ground is made of flush blocks rather than a single block.
+     * @return The collision system.
+     */
+    private static CollisionSystem createGround(boolean flush) {
+        CollisionSystem collisions = new CollisionSystem();
+        Renderable renderable = new RectangleRenderable(Color.GRAY);
+        if (!flush) {
+            Block ground = new Block(new Vector2(0, GROUND_Y), renderable);
+            ground.setDimensions(new Vector2(GROUND_BLOCKS * Block.SIZE, Block.SIZE));
+            collisions.addStatic(ground);
+            return collisions;
+        }
+        for (int column = 0; column < GROUND_BLOCKS; column++) {
+            collisions.addStatic(new Block(new Vector2(column * Block.SIZE, GROUND_Y), renderable));
+        }
+        return collisions;
+    }
+
+    /**
+     * Runs an avatar standing on the ground, one tick at a time, as the world does.
+     *
+     * @param collisions The collision system holding the terrain.
+     * @param startX     The x-coordinate the avatar starts at.
+     * @param script     The script running the avatar.
+     * @return The top-left corner of the avatar at the end of the run.
+     */
+    private static Vector2 run(CollisionSystem collisions, float startX, String script) {
+        ScriptedInput input = new ScriptedInput(script);
+        Renderable renderable = new RectangleRenderable(Color.WHITE);
+        Avatar avatar = new Avatar(new Vector2(startX, GROUND_Y - Avatar.AVATAR_SIZE),
+                input,
+                renderable,
+                renderable,
+                renderable);
+        collisions.addDynamic(avatar);
+        float deltaTime = 1 / TICK_RATE;
+        for (int tick = 0; tick < TICKS; tick++) {
+            input.advance(deltaTime);
+            avatar.update(deltaTime);
+            collisions.update();
+        }
+        return avatar.getTopLeftCorner();
+    }
+
+    /**
+     * Prints the result of a check.
+     *
+     * @param name   The name of the check.
+     * @param passed Whether the check passed.
+     * @param end    The top-left corner of the avatar at the end of the check.
+     * @return Whether the check passed.
+     */
+    private static boolean report(String name, boolean passed, Vector2 end) {
+        System.out.printf(RESULT, name, passed ? "passed" : "FAILED", end.x(), end.y());
+        return passed;
+    }
+}
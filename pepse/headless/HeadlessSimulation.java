@@ -0,0 +1,220 @@
+package pepse.headless;
+
+import danogl.collisions.Layer;
+import danogl.gui.rendering.RectangleRenderable;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import pepse.PepseGameManager;
+import pepse.world.Avatar;
+import pepse.world.Terrain;
+import pepse.world.World;
+import pepse.world.chunks.ChunkStore;
+import pepse.world.daynight.Night;
+import pepse.world.daynight.Sun;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Runs the Pepse world without a window: the avatar is driven by {@link ScriptedInput}, and the
+ * world ticks (avatar physics, day-night transitions, terrain streaming and fruit respawn) at a fixed
+ * or unbounded rate. Every tick advances the world by the same simulated time, as the game's fixed
+ * timestep does. Chunks are generated on the simulation thread and spawned by count alone, and the
+ * wind is seeded by the world, so a run with the same seed, script and tick rate is deterministic at
+ * any speed. Meant for soak tests and throughput measurements on servers.
+ * The avatar collides with the terrain, trunks and fruit through the world's own collision system, as
+ * in the game.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public class HeadlessSimulation {
+    /** The dimensions of the simulated window. */
+    private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1000, 600);
+
+    /** The default seed of the world. */
+    private static final int DEFAULT_SEED = 1;
+
+    /** The default number of ticks to run. */
+    private static final int DEFAULT_TICKS = 36000;
+
+    /** The default number of ticks per simulated second. */
+    private static final float DEFAULT_TICK_RATE = 60;
+
+    /** The default number of simulated seconds per real second. */
+    private static final float DEFAULT_SPEED = 1;
+
+    /** The default input script. */
+    private static final String DEFAULT_SCRIPT = "right:20,jump:0.1,idle:3,left:10,jump:0.1,right:15";
+
+    /** Nanoseconds in a second. */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /** Non-positive rate error message. */
+    private static final String RATE_ERROR = "tick rate and speed must be positive";
+
+    /** Usage message. */
+    private static final String USAGE = "usage: HeadlessSimulation [--ticks N] [--rate TICKS_PER_SECOND] " +
+            "[--speed MULTIPLIER] [--unbounded] [--seed N] [--script action:seconds,...] [--store DIRECTORY]";
+
+    /** Report format. */
+    private static final String REPORT = "ticks: %d%nsimulated seconds: %.1f%nwall seconds: %.2f%n" +
+            "ticks per second: %.1f%npeak live objects: %d%nfinal live objects: %d%navatar x: %.0f%n" +
+            "height cache hits/misses: %d/%d%n";
+
+    private final ScriptedInput input;
+    private final HeadlessWorldObjects worldObjects;
+    private final Avatar avatar;
+    private final World world;
+
+    /**
+     * Constructs a HeadlessSimulation and loads the world around the avatar.
+     *
+     * @param seed  The seed of the world.
+     * @param input The scripted input driving the avatar.
+     * @param store The store keeping the visited chunks, or null to generate them every time.
+     */
+    public HeadlessSimulation(int seed, ScriptedInput input, ChunkStore store) {
+        this.input = input;
+        this.worldObjects = new HeadlessWorldObjects();
+
+        Renderable avatarRenderable = new RectangleRenderable(Color.WHITE);
+        this.avatar = new Avatar(Vector2.ZERO, input, avatarRenderable, avatarRenderable, avatarRenderable);
+        worldObjects.addObject(avatar, Layer.DEFAULT);
+        worldObjects.addObject(Night.create(WINDOW_DIMENSIONS, PepseGameManager.NIGHT_CYCLE), Layer.FOREGROUND);
+        worldObjects.addObject(Sun.create(WINDOW_DIMENSIONS, PepseGameManager.NIGHT_CYCLE), Layer.BACKGROUND);
+
+        this.world = new World(WINDOW_DIMENSIONS, seed, WINDOW_DIMENSIONS.x(), avatar, worldObjects, store, true);
+        world.loadAroundAvatar();
+    }
+
+    /**
+     * Runs the simulation from the command line and prints a report.
+     *
+     * @param args Command line arguments, see {@link #USAGE}.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int ticks = DEFAULT_TICKS;
+        float tickRate = DEFAULT_TICK_RATE;
+        float speed = DEFAULT_SPEED;
+        boolean unbounded = false;
+        int seed = DEFAULT_SEED;
+        String script = DEFAULT_SCRIPT;
+        String storePath = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--ticks":
+                        ticks = Integer.parseInt(args[++i]);
+                        break;
+                    case "--rate":
+                        tickRate = Float.parseFloat(args[++i]);
+                        break;
+                    case "--speed":
+                        speed = Float.parseFloat(args[++i]);
+                        break;
+                    case "--unbounded":
+                        unbounded = true;
+                        break;
+                    case "--seed":
+                        seed = Integer.parseInt(args[++i]);
+                        break;
+                    case "--script":
+                        script = args[++i];
+                        break;
+                    case "--store":
+                        storePath = args[++i];
+                        break;
+                    default:
+                        throw new IllegalArgumentException(args[i]);
+                }
+            }
+            ChunkStore store = storePath == null ? null :
+                    new ChunkStore(Paths.get(storePath), seed, Terrain.baseHeightOf(WINDOW_DIMENSIONS));
+            HeadlessSimulation simulation = new HeadlessSimulation(seed, new ScriptedInput(script), store);
+            simulation.run(ticks, tickRate, speed, unbounded);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println(e);
+            System.err.println(USAGE);
+        } catch (IOException e) {
+            System.err.println(e);
+        }
+    }
+
+    /**
+     * Runs the simulation for a number of ticks and prints a report.
+     *
+     * @param ticks     The number of ticks to run.
+     * @param tickRate  The number of ticks per simulated second.
+     * @param unbounded Whether to run as fast as possible instead of in real time.
+     */
+    public void run(int ticks, float tickRate, boolean unbounded) {
+        run(ticks, tickRate, DEFAULT_SPEED, unbounded);
+    }
+
+    /**
+     * Runs the simulation for a number of ticks and prints a report.
+     *
+     * @param ticks     The number of ticks to run.
+     * @param tickRate  The number of ticks per simulated second.
+     * @param speed     The number of simulated seconds per real second, when not unbounded.
+     * @param unbounded Whether to run as fast as possible instead of in real time.
+     */
+    public void run(int ticks, float tickRate, float speed, boolean unbounded) {
+        if (!(tickRate > 0) || !(speed > 0)) {
+            throw new IllegalArgumentException(RATE_ERROR);
+        }
+        float deltaTime = 1 / tickRate;
+        long tickNanos = (long) (NANOS_PER_SECOND / (tickRate * speed));
+        long start = System.nanoTime();
+        for (int tick = 0; tick < ticks; tick++) {
+            tick(deltaTime);
+            if (!unbounded) {
+                waitUntil(start + (tick + 1) * tickNanos);
+            }
+        }
+        double wallSeconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+        world.shutdown();
+
+        System.out.printf(REPORT,
+                ticks,
+                ticks * deltaTime,
+                wallSeconds,
+                ticks / wallSeconds,
+                worldObjects.getPeakCount(),
+                worldObjects.size(),
+                avatar.getCenter().x(),
+                world.getTerrain().getHeightCache().getHits(),
+                world.getTerrain().getHeightCache().getMisses());
+    }
+
+    /**
+     * Advances the simulation by one tick, which is also a frame: the world is streamed after every tick.
+     *
+     * @param deltaTime The simulated time of the tick, in seconds.
+     */
+    public void tick(float deltaTime) {
+        input.advance(deltaTime);
+        worldObjects.update(deltaTime);
+        world.update(deltaTime);
+        world.stream();
+    }
+
+    /**
+     * Sleeps until the given time, to run at the requested rate.
+     *
+     * @param deadline The time to wait for, as returned by {@link System#nanoTime()}.
+     */
+    private static void waitUntil(long deadline) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(remaining / 1_000_000, (int) (remaining % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
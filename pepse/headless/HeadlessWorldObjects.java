@@ -0,0 +1,71 @@
+package pepse.headless;
+
+import danogl.GameObject;
+import pepse.world.WorldObjects;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The live objects of a headless simulation, standing in for the game's object collection.
+ * Keeps track of the peak number of live objects.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public class HeadlessWorldObjects implements WorldObjects {
+    private final Set<GameObject> objects;
+    private final List<GameObject> updateBuffer;
+    private int peakCount;
+
+    /**
+     * Constructs an empty HeadlessWorldObjects.
+     */
+    public HeadlessWorldObjects() {
+        this.objects = new LinkedHashSet<>();
+        this.updateBuffer = new ArrayList<>();
+    }
+
+    @Override
+    public void addObject(GameObject object, int layer) {
+        objects.add(object);
+        peakCount = Math.max(peakCount, objects.size());
+    }
+
+    @Override
+    public void removeObject(GameObject object, int layer) {
+        objects.remove(object);
+    }
+
+    /**
+     * Updates every live object, as the game's object collection does once per tick.
+     *
+     * @param deltaTime The simulated time since the last update, in seconds.
+     */
+    public void update(float deltaTime) {
+        updateBuffer.addAll(objects);
+        for (GameObject object : updateBuffer) {
+            object.update(deltaTime);
+        }
+        updateBuffer.clear();
+    }
+
+    /**
+     * Gets the number of live objects.
+     *
+     * @return The number of live objects.
+     */
+    public int size() {
+        return objects.size();
+    }
+
+    /**
+     * Gets the largest number of objects that were live at once.
+     *
+     * @return The peak number of live objects.
+     */
+    public int getPeakCount() {
+        return peakCount;
+    }
+}
@@ -0,0 +1,107 @@
+package pepse.headless;
+
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Scripted keyboard input for headless simulations. A script is a comma separated list of
+ * {@code action:seconds} steps, where the action is one of right, left, jump or idle; the script loops
+ * once it ends. For example {@code right:10,jump:0.1,left:5,idle:2}.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public class ScriptedInput implements IntPredicate {
+    /** Separator between the steps of a script. */
+    private static final String STEP_SEPARATOR = ",";
+
+    /** Separator between the action and the duration of a step. */
+    private static final String DURATION_SEPARATOR = ":";
+
+    /** Malformed script error message. */
+    private static final String SCRIPT_ERROR = "script steps must look like action:seconds, got: ";
+
+    /** Unknown action error message. */
+    private static final String ACTION_ERROR = "unknown action (expected right, left, jump or idle): ";
+
+    /** Key code of a step that presses no key. */
+    private static final int NO_KEY = KeyEvent.VK_UNDEFINED;
+
+    private final List<Integer> keys;
+    private final List<Float> durations;
+    private int step;
+    private float stepTime;
+
+    /**
+     * Constructs a ScriptedInput from a script.
+     *
+     * @param script The script, e.g. {@code right:10,jump:0.1,left:5}.
+     */
+    public ScriptedInput(String script) {
+        this.keys = new ArrayList<>();
+        this.durations = new ArrayList<>();
+        for (String stepText : script.split(STEP_SEPARATOR)) {
+            String[] parts = stepText.trim().split(DURATION_SEPARATOR);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(SCRIPT_ERROR + stepText);
+            }
+            float duration;
+            try {
+                duration = Float.parseFloat(parts[1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(SCRIPT_ERROR + stepText);
+            }
+            if (duration <= 0) {
+                throw new IllegalArgumentException(SCRIPT_ERROR + stepText);
+            }
+            keys.add(keyOf(parts[0]));
+            durations.add(duration);
+        }
+    }
+
+    /**
+     * Maps an action of a script to its key code.
+     *
+     * @param action The action.
+     * @return The key code of the action.
+     */
+    private static int keyOf(String action) {
+        switch (action) {
+            case "right":
+                return KeyEvent.VK_RIGHT;
+            case "left":
+                return KeyEvent.VK_LEFT;
+            case "jump":
+                return KeyEvent.VK_SPACE;
+            case "idle":
+                return NO_KEY;
+            default:
+                throw new IllegalArgumentException(ACTION_ERROR + action);
+        }
+    }
+
+    /**
+     * Advances the script by the given time.
+     *
+     * @param deltaTime The simulated time that passed, in seconds.
+     */
+    public void advance(float deltaTime) {
+        stepTime += deltaTime;
+        while (stepTime >= durations.get(step)) {
+            stepTime -= durations.get(step);
+            step = (step + 1) % keys.size();
+        }
+    }
+
+    /**
+     * Tells whether the key with the given key code is pressed at the current point of the script.
+     *
+     * @param keyCode The key code.
+     * @return True if the current step presses the key, false otherwise.
+     */
+    @Override
+    public boolean test(int keyCode) {
+        return keyCode != NO_KEY && keys.get(step) == keyCode;
+    }
+}
@@ -1,15 +1,23 @@
 package pepse.util;
 
 import java.awt.*;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Provides procedurally-generated colors around a pivot.
+ * Colors can either be random, using a per-thread generator, or keyed by a seed and a position, in which
+ * case the same key always yields the same color and no mutable state is shared between callers.
  * @author Dan Nirel
  */
 public final class ColorSupplier {
     private static final int DEFAULT_COLOR_DELTA = 10;
-    private final static Random random = new Random();
+    private static final int CHANNEL_MASK = 0xFF;
+    private static final int OPAQUE = 0xFF000000;
+    private static final int RED_SHIFT = 16;
+    private static final int GREEN_SHIFT = 8;
+    private static final int RED_KEY = 0x632BE5AB;
+    private static final int GREEN_KEY = 0x85157AF5;
+    private static final int BLUE_KEY = 0x1B873593;
 
     /**
      * Returns a color similar to baseColor, with a default delta.
@@ -36,6 +44,38 @@ public final class ColorSupplier {
                 randomChannelInRange(baseColor.getBlue()-colorDelta, baseColor.getBlue()+colorDelta));
     }
 
+    /**
+     * Returns a color similar to baseColor, with a default delta, determined by a seed and a position.
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @param seed The seed of the world.
+     * @param x The x-coordinate the color is picked for.
+     * @param y The y-coordinate the color is picked for.
+     * @return A color similar to baseColor, always the same one for the same arguments.
+     */
+    public static Color approximateColor(Color baseColor, int seed, int x, int y) {
+        return new Color(approximateArgb(baseColor.getRGB(), DEFAULT_COLOR_DELTA, seed, x, y), true);
+    }
+
+    /**
+     * Returns a packed ARGB color similar to baseArgb, with a difference of at most colorDelta,
+     * determined by a seed and a position.
+     *
+     * @param baseArgb The packed ARGB color that we wish to approximate.
+     * @param colorDelta The maximal difference (per channel) between the picked color and the base color.
+     * @param seed The seed of the world.
+     * @param x The x-coordinate the color is picked for.
+     * @param y The y-coordinate the color is picked for.
+     * @return An opaque packed ARGB color similar to baseArgb, always the same one for the same arguments.
+     */
+    public static int approximateArgb(int baseArgb, int colorDelta, int seed, int x, int y) {
+        int hash = hash(seed, x, y);
+        return OPAQUE |
+                keyedChannel(baseArgb >>> RED_SHIFT, colorDelta, hash ^ RED_KEY) << RED_SHIFT |
+                keyedChannel(baseArgb >>> GREEN_SHIFT, colorDelta, hash ^ GREEN_KEY) << GREEN_SHIFT |
+                keyedChannel(baseArgb, colorDelta, hash ^ BLUE_KEY);
+    }
+
     /**
      * This method generates a random value for a color channel within the given range [min, max].
      *
@@ -44,7 +84,47 @@ public final class ColorSupplier {
      * @return A random number in the range [min, max], clipped to [0,255].
      */
     private static int randomChannelInRange(int min, int max) {
-        int channel = random.nextInt(max-min+1) + min;
+        int channel = ThreadLocalRandom.current().nextInt(max-min+1) + min;
         return Math.min(255, Math.max(channel, 0));
     }
+
+    /**
+     * Picks a color channel within colorDelta of the base channel from a hash.
+     *
+     * @param base The base channel, in the lowest byte.
+     * @param colorDelta The maximal difference between the picked channel and the base channel.
+     * @param hash The hash the channel is picked by.
+     * @return The picked channel, clipped to [0,255].
+     */
+    private static int keyedChannel(int base, int colorDelta, int hash) {
+        int channel = (base & CHANNEL_MASK) - colorDelta + Math.floorMod(mix(hash), 2*colorDelta+1);
+        return Math.min(255, Math.max(channel, 0));
+    }
+
+    /**
+     * Hashes a seed and a position.
+     *
+     * @param seed The seed.
+     * @param x The x-coordinate.
+     * @param y The y-coordinate.
+     * @return The hash.
+     */
+    private static int hash(int seed, int x, int y) {
+        return mix(mix(seed ^ x * 0x9E3779B1) ^ y * 0xC2B2AE35);
+    }
+
+    /**
+     * Scrambles the bits of a value.
+     *
+     * @param value The value.
+     * @return The scrambled value.
+     */
+    private static int mix(int value) {
+        value ^= value >>> 16;
+        value *= 0x7FEB352D;
+        value ^= value >>> 15;
+        value *= 0x846CA68B;
+        value ^= value >>> 16;
+        return value;
+    }
 }
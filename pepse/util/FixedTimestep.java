@@ -0,0 +1,133 @@
+package pepse.util;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a simulation in ticks of a fixed length, however long the rendered frames take.
+ * The time of every frame, scaled by a time scale, is added to an accumulator, and as many whole ticks
+ * as it holds are run; the remainder carries over to the next frame. Since the simulation only ever
+ * advances by whole ticks, it behaves the same at any frame rate, and a time scale above one runs many
+ * ticks per frame to fast-forward it.
+ * Moving objects can be interpolated between their positions at the last two ticks by the remainder,
+ * so they move smoothly when ticks and frames do not line up. They are put back at their simulated
+ * positions before the next tick.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public class FixedTimestep {
+    /**
+     * The longest frame time the accumulator takes at once, in seconds, so a stalled frame does not make
+     * the simulation run a long burst of ticks to catch up.
+     */
+    private static final float MAX_FRAME_TIME = 0.25f;
+
+    /**
+     * Non-positive rate error message.
+     */
+    private static final String RATE_ERROR = "tick rate and time scale must be positive";
+
+    private final float tickTime;
+    private final float timeScale;
+    private final List<GameObject> interpolated;
+    private final List<Vector2> previous;
+    private final List<Vector2> current;
+    private float accumulator;
+
+    /**
+     * Constructs a FixedTimestep.
+     *
+     * @param tickRate  The number of ticks per simulated second.
+     * @param timeScale The number of simulated seconds per real second.
+     */
+    public FixedTimestep(float tickRate, float timeScale) {
+        if (!(tickRate > 0) || !(timeScale > 0)) {
+            throw new IllegalArgumentException(RATE_ERROR);
+        }
+        this.tickTime = 1 / tickRate;
+        this.timeScale = timeScale;
+        this.interpolated = new ArrayList<>();
+        this.previous = new ArrayList<>();
+        this.current = new ArrayList<>();
+    }
+
+    /**
+     * Interpolates the rendered position of a moving object between ticks.
+     *
+     * @param object The object.
+     */
+    public void interpolate(GameObject object) {
+        interpolated.add(object);
+        previous.add(object.getTopLeftCorner());
+        current.add(object.getTopLeftCorner());
+    }
+
+    /**
+     * Advances the simulation by the time of a rendered frame, running as many ticks as have accumulated,
+     * and then moves the interpolated objects to where they are drawn in this frame.
+     *
+     * @param frameTime The real time that has passed since the last frame, in seconds.
+     * @param tick      Advances the simulation by a single tick of {@link #getTickTime()} seconds.
+     * @return The number of ticks that were run.
+     */
+    public int advance(float frameTime, Runnable tick) {
+        restorePositions();
+        accumulator += Math.min(frameTime, MAX_FRAME_TIME) * timeScale;
+        int ticks = 0;
+        while (accumulator >= tickTime) {
+            for (int i = 0; i < interpolated.size(); i++) {
+                previous.set(i, interpolated.get(i).getTopLeftCorner());
+            }
+            tick.run();
+            accumulator -= tickTime;
+            ticks++;
+        }
+        interpolatePositions();
+        return ticks;
+    }
+
+    /**
+     * Gets the simulated time of a single tick.
+     *
+     * @return The tick time, in seconds.
+     */
+    public float getTickTime() {
+        return tickTime;
+    }
+
+    /**
+     * Gets how far the simulation is between its last tick and the next one.
+     *
+     * @return The accumulated time not simulated yet, as a fraction of a tick, between 0 and 1.
+     */
+    public float getAlpha() {
+        return accumulator / tickTime;
+    }
+
+    /**
+     * Puts the interpolated objects back at their simulated positions.
+     */
+    private void restorePositions() {
+        for (int i = 0; i < interpolated.size(); i++) {
+            interpolated.get(i).setTopLeftCorner(current.get(i));
+        }
+    }
+
+    /**
+     * Remembers the simulated positions of the interpolated objects and moves them between their
+     * positions at the last two ticks.
+     */
+    private void interpolatePositions() {
+        float alpha = getAlpha();
+        for (int i = 0; i < interpolated.size(); i++) {
+            GameObject object = interpolated.get(i);
+            Vector2 simulated = object.getTopLeftCorner();
+            current.set(i, simulated);
+            Vector2 from = previous.get(i);
+            object.setTopLeftCorner(from.add(simulated.subtract(from).mult(alpha)));
+        }
+    }
+}
@@ -1,11 +1,22 @@
 package pepse.util;
 
 public class NoiseGenerator {
+    private static final int LATTICE_SIZE = 256;
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_KERNEL = "pepse.util.VectorNoiseKernel";
+    private static final String VECTOR_PROPERTY = "pepse.noise.vector";
+    private static final NoiseKernel vectorKernel = loadVectorKernel();
+
     private double seed;
     private long default_size;
     private int[] p;
     private int[] permutation;
     private double startPoint;
+    private double[] octavePoints;
+    private double[] leftSlope;
+    private double[] leftOffset;
+    private double[] rightSlope;
+    private double[] rightOffset;
 
     /**
      * The constructor of the NoiseGenerator class.
@@ -55,6 +66,52 @@ public class NoiseGenerator {
             p[256 + i] = p[i] = permutation[i];
         }
 
+        initOctaves();
+        initLattice();
+    }
+
+    /**
+     * Precomputes the points (scales) of the octaves, halving from startPoint while at least 1.
+     */
+    private void initOctaves() {
+        int octaves = 0;
+        for (double currentPoint = startPoint; currentPoint >= 1; currentPoint /= 2.0) {
+            octaves++;
+        }
+        this.octavePoints = new double[octaves];
+        double currentPoint = startPoint;
+        for (int i = 0; i < octaves; i++) {
+            octavePoints[i] = currentPoint;
+            currentPoint /= 2.0;
+        }
+    }
+
+    /**
+     * Precomputes, for every lattice cell along X, the noise of the cell as two linear functions of the
+     * relative x: one for the left corner and one for the right corner.
+     * Along the 1D line the noise is sampled on, y is always the seed and z is always 0, so the Y hashes,
+     * the Y fade and the Z interpolation are the same for every sample and are folded in here.
+     */
+    private void initLattice() {
+        int Y = (int) Math.floor(seed) & 255;
+        double y = seed - Math.floor(seed);
+        double v = fade(y);
+
+        this.leftSlope = new double[LATTICE_SIZE];
+        this.leftOffset = new double[LATTICE_SIZE];
+        this.rightSlope = new double[LATTICE_SIZE];
+        this.rightOffset = new double[LATTICE_SIZE];
+        for (int X = 0; X < LATTICE_SIZE; X++) {
+            int A = p[X] + Y;
+            int B = p[X + 1] + Y;
+            int AA = p[A], AB = p[A + 1], BA = p[B], BB = p[B + 1];
+
+            // grad(h, x, y, 0) = gradX(h) * x + gradY(h) * y, blended by v between the y and y - 1 rows.
+            leftSlope[X] = lerp(v, gradX(p[AA]), gradX(p[AB]));
+            leftOffset[X] = lerp(v, gradY(p[AA]) * y, gradY(p[AB]) * (y - 1));
+            rightSlope[X] = lerp(v, gradX(p[BA]), gradX(p[BB]));
+            rightOffset[X] = lerp(v, gradY(p[BA]) * y, gradY(p[BB]) * (y - 1));
+        }
     }
 
     /**
@@ -72,51 +129,77 @@ public class NoiseGenerator {
      *
      */
     public double noise(double x, double factor) {
-        double value = 0.0;
-        double currentPoint = startPoint;
+        return octaveSum(x) * factor / startPoint;
+    }
 
-        while (currentPoint >= 1) {
-            value += smoothNoise((x / currentPoint), 0, 0) * currentPoint;
-            currentPoint /= 2.0;
+    /**
+     * Fills an array with the noise of evenly spaced x coordinates, as returned by {@link #noise}.
+     * Does not allocate.
+     *
+     * @param out    the array to fill; out[i] receives the noise of startX + i * step.
+     * @param startX the first x coordinate.
+     * @param step   the distance between consecutive x coordinates.
+     * @param count  the number of x coordinates, at most out.length.
+     * @param factor describes how large the noise should be, as in {@link #noise}.
+     */
+    public void fill(float[] out, int startX, int step, int count, double factor) {
+        double scale = factor / startPoint;
+        int filled = 0;
+        if (vectorKernel != null) {
+            filled = vectorKernel.fill(octavePoints, seed, leftSlope, leftOffset, rightSlope, rightOffset,
+                    out, startX, step, count, scale);
+        }
+        for (int i = filled; i < count; i++) {
+            out[i] = (float) (octaveSum(startX + (double) i * step) * scale);
         }
+    }
 
-        return value * factor / startPoint;
+    /**
+     * Loads the SIMD kernel if the jdk.incubator.vector module is available (e.g. when running with
+     * --add-modules jdk.incubator.vector) and it was not disabled with -Dpepse.noise.vector=false.
+     *
+     * @return the SIMD kernel, or null to use the scalar path.
+     */
+    private static NoiseKernel loadVectorKernel() {
+        if (!Boolean.parseBoolean(System.getProperty(VECTOR_PROPERTY, "true")) ||
+                ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return null;
+        }
+        try {
+            return (NoiseKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
     }
 
+    /**
+     * Sums the 1D noise of all the octaves at x, each weighted by its point.
+     */
+    private double octaveSum(double x) {
+        double value = 0.0;
+        for (double currentPoint : octavePoints) {
+            value += smoothNoise(x / currentPoint) * currentPoint;
+        }
+        return value;
+    }
 
-    private double smoothNoise(double x, double y, double z) {
-        // Offset each coordinate by the seed value
+    /**
+     * 1D gradient noise along the line the generator samples (y = seed, z = 0), using the precomputed
+     * lattice coefficients.
+     */
+    private double smoothNoise(double x) {
+        // Offset the coordinate by the seed value
         x += this.seed;
-        y += this.seed;
         x += this.seed;
 
-        int X = (int) Math.floor(x) & 255; // FIND UNIT CUBE THAT
-        int Y = (int) Math.floor(y) & 255; // CONTAINS POINT.
-        int Z = (int) Math.floor(z) & 255;
-
-        x -= Math.floor(x); // FIND RELATIVE X,Y,Z
-        y -= Math.floor(y); // OF POINT IN CUBE.
-        z -= Math.floor(z);
-
-        double u = fade(x); // COMPUTE FADE CURVES
-        double v = fade(y); // FOR EACH OF X,Y,Z.
-        double w = fade(z);
-
-        int A = p[X] + Y;
-        int AA = p[A] + Z;
-        int AB = p[A + 1] + Z; // HASH COORDINATES OF
-        int B = p[X + 1] + Y;
-        int BA = p[B] + Z;
-        int BB = p[B + 1] + Z; // THE 8 CUBE CORNERS,
-
-        return lerp(w, lerp(v, lerp(u, grad(p[AA], x, y, z),    // AND ADD
-                                grad(p[BA], x - 1, y, z)), // BLENDED
-                        lerp(u, grad(p[AB], x, y - 1, z),    // RESULTS
-                                grad(p[BB], x - 1, y - 1, z))),// FROM 8
-                lerp(v, lerp(u, grad(p[AA + 1], x, y, z - 1),    // CORNERS
-                                grad(p[BA + 1], x - 1, y, z - 1)), // OF CUBE
-                        lerp(u, grad(p[AB + 1], x, y - 1, z - 1),
-                                grad(p[BB + 1], x - 1, y - 1, z - 1))));
+        double floor = Math.floor(x);
+        int X = (int) floor & 255; // FIND UNIT SEGMENT THAT CONTAINS POINT.
+        x -= floor;                 // FIND RELATIVE X OF POINT IN SEGMENT.
+
+        double u = fade(x);
+        double left = leftSlope[X] * x + leftOffset[X];
+        double right = rightSlope[X] * (x - 1) + rightOffset[X];
+        return lerp(u, left, right);
     }
 
     private double fade(double t) {
@@ -127,10 +210,23 @@ public class NoiseGenerator {
         return a + t * (b - a);
     }
 
-    private double grad(int hash, double x, double y, double z) {
+    /**
+     * The coefficient of x in grad(hash, x, y, 0).
+     */
+    private double gradX(int hash) {
         int h = hash & 15; // CONVERT LO 4 BITS OF HASH CODE
-        double u = h < 8 ? x : y, // INTO 12 GRADIENT DIRECTIONS.
-                v = h < 4 ? y : h == 12 || h == 14 ? x : z;
+        double u = h < 8 ? 1 : 0, // INTO 12 GRADIENT DIRECTIONS.
+                v = h < 4 ? 0 : h == 12 || h == 14 ? 1 : 0;
+        return ((h & 1) == 0 ? u : -u) + ((h & 2) == 0 ? v : -v);
+    }
+
+    /**
+     * The coefficient of y in grad(hash, x, y, 0).
+     */
+    private double gradY(int hash) {
+        int h = hash & 15;
+        double u = h < 8 ? 0 : 1,
+                v = h < 4 ? 1 : 0;
         return ((h & 1) == 0 ? u : -u) + ((h & 2) == 0 ? v : -v);
     }
 }
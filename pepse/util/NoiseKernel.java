@@ -0,0 +1,28 @@
+package pepse.util;
+
+/**
+ * A bulk evaluator of the 1D noise of {@link NoiseGenerator}, working on the generator's precomputed
+ * octave points and lattice coefficients.
+ */
+interface NoiseKernel {
+    /**
+     * Fills the longest prefix of out that the kernel handles efficiently with the noise of evenly spaced
+     * x coordinates. The caller fills the rest.
+     *
+     * @param octavePoints the points of the octaves.
+     * @param seed         the seed of the generator.
+     * @param leftSlope    the slope of the left corner of each lattice cell.
+     * @param leftOffset   the offset of the left corner of each lattice cell.
+     * @param rightSlope   the slope of the right corner of each lattice cell.
+     * @param rightOffset  the offset of the right corner of each lattice cell.
+     * @param out          the array to fill; out[i] receives the noise of startX + i * step.
+     * @param startX       the first x coordinate.
+     * @param step         the distance between consecutive x coordinates.
+     * @param count        the number of x coordinates.
+     * @param scale        the factor each octave sum is multiplied by.
+     * @return the number of entries filled, from the start of out.
+     */
+    int fill(double[] octavePoints, double seed,
+             double[] leftSlope, double[] leftOffset, double[] rightSlope, double[] rightOffset,
+             float[] out, int startX, int step, int count, double scale);
+}
@@ -0,0 +1,112 @@
+package pepse.util;
+
+import danogl.gui.rendering.RectangleRenderable;
+import danogl.gui.rendering.Renderable;
+
+import java.awt.*;
+
+/**
+ * A fixed set of prebuilt renderables approximating a single material color, shared by all the objects
+ * of that material. Objects pick their variant deterministically by hashing their position, so no colors
+ * or renderables are created per object. The variant colors are keyed by the seed of the world, so a
+ * world looks the same in every run.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public final class Palette {
+    /**
+     * The default number of color variants of a palette.
+     */
+    public static final int DEFAULT_VARIANTS = 16;
+
+    /**
+     * Variants error message.
+     */
+    private static final String VARIANTS_ERROR = "a palette must have at least one variant";
+
+    private final Renderable[] variants;
+    private final int[] argbs;
+
+    /**
+     * Constructs a palette of DEFAULT_VARIANTS rectangles approximating the base color.
+     *
+     * @param baseColor The color of the material.
+     * @param seed      The seed of the world, which the variant colors are picked by.
+     */
+    public Palette(Color baseColor, int seed) {
+        this(baseColor, DEFAULT_VARIANTS, seed);
+    }
+
+    /**
+     * Constructs a palette of rectangles approximating the base color.
+     *
+     * @param baseColor The color of the material.
+     * @param variants  The number of color variants.
+     * @param seed      The seed of the world, which the variant colors are picked by.
+     */
+    public Palette(Color baseColor, int variants, int seed) {
+        if (variants < 1) {
+            throw new IllegalArgumentException(VARIANTS_ERROR);
+        }
+        this.variants = new Renderable[variants];
+        this.argbs = new int[variants];
+        for (int i = 0; i < variants; i++) {
+            Color color = ColorSupplier.approximateColor(baseColor, seed, i, 0);
+            this.variants[i] = new RectangleRenderable(color);
+            this.argbs[i] = color.getRGB();
+        }
+    }
+
+    /**
+     * Gets the variant of the object at the given position.
+     *
+     * @param x The x-coordinate of the object.
+     * @param y The y-coordinate of the object.
+     * @return The renderable of the object, always the same one for the same position.
+     */
+    public Renderable at(float x, float y) {
+        return at(x, y, 0);
+    }
+
+    /**
+     * Gets a variant of the object at the given position for a key, e.g. the number of a recoloring, so
+     * the object can change its variant without losing determinism.
+     *
+     * @param x   The x-coordinate of the object.
+     * @param y   The y-coordinate of the object.
+     * @param key The key; a key of 0 picks the same variant as {@link #at(float, float)}.
+     * @return The renderable, always the same one for the same position and key.
+     */
+    public Renderable at(float x, float y, int key) {
+        return variants[variantAt(Float.floatToIntBits(x), Float.floatToIntBits(y), key, variants.length)];
+    }
+
+    /**
+     * Gets the color of the variant of the object at the given position, e.g. to rasterize it into an
+     * image that looks the same as the object.
+     *
+     * @param x The x-coordinate of the object.
+     * @param y The y-coordinate of the object.
+     * @return The ARGB color of the object, always the same one for the same position.
+     */
+    public int argbAt(float x, float y) {
+        return argbs[variantAt(Float.floatToIntBits(x), Float.floatToIntBits(y), 0, argbs.length)];
+    }
+
+    /**
+     * Hashes a position and a key into a variant number.
+     *
+     * @param x        The hashed x-coordinate.
+     * @param y        The hashed y-coordinate.
+     * @param key      The key.
+     * @param variants The number of variants.
+     * @return The variant number, between 0 and variants - 1.
+     */
+    private static int variantAt(int x, int y, int key, int variants) {
+        int hash = x * 0x9E3779B1 ^ y * 0x85EBCA77 ^ key * 0xC2B2AE3D;
+        hash ^= hash >>> 16;
+        hash *= 0x7FEB352D;
+        hash ^= hash >>> 15;
+        return Math.floorMod(hash, variants);
+    }
+}
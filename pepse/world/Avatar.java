@@ -7,12 +7,10 @@ import danogl.gui.rendering.AnimationRenderable;
 import danogl.gui.rendering.ImageRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
-import pepse.world.trees.Fruit;
-import pepse.world.trees.Tree;
+import pepse.diagnostics.JumpEvent;
 
 import java.awt.event.KeyEvent;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.function.IntPredicate;
 
 /**
  * The Avatar class represents the player's character in the game.
@@ -20,7 +18,7 @@ import java.util.List;
  *
  * @author Dana Zilca and Noam Nachum
  */
-public class Avatar extends GameObject {
+public class Avatar extends GameObject implements TypedObject {
 
     /**
      * Horizontal movement velocity.
@@ -41,14 +39,14 @@ public class Avatar extends GameObject {
     public static final float MAX_ENERGY = 100;
 
     /**
-     * Energy gain when the avatar is idle.
+     * Energy gain per second when the avatar is idle.
      */
-    private static final float ENERGY_GAIN_IDLE = 1;
+    private static final float ENERGY_GAIN_IDLE = 60;
 
     /**
-     * Energy loss when the avatar moves.
+     * Energy loss per second when the avatar moves.
      */
-    private static final float ENERGY_LOSS_MOVE = 0.5f;
+    private static final float ENERGY_LOSS_MOVE = 30;
 
     /**
      * Energy loss when the avatar jumps.
@@ -75,9 +73,9 @@ public class Avatar extends GameObject {
      */
     private static final float ANIMATION_FRAME_DURATION = 0.2f;
     /**
-     * Listener for user input to control the avatar's movements.
+     * Tells whether a key is pressed, to control the avatar's movements.
      */
-    private final UserInputListener inputListener;
+    private final IntPredicate isKeyPressed;
 
     /**
      * Animation for the avatar's running state.
@@ -90,9 +88,14 @@ public class Avatar extends GameObject {
     private final Renderable jumpAnimation;
 
     /**
-     * List of observers to notify when the avatar jumps.
+     * Default distance from the avatar within which jump observers are notified.
      */
-    private final List<JumpObserver> jumpObservers;
+    private static final float DEFAULT_JUMP_NOTIFY_RADIUS = 1000;
+
+    /**
+     * Registry of observers to notify when the avatar jumps.
+     */
+    private final JumpObserverRegistry jumpObservers;
 
     /**
      * Path to the first frame of the avatar's idle animation.
@@ -154,10 +157,7 @@ public class Avatar extends GameObject {
      */
     private static final String JUMP3_PATH = "assets/jump_3.png";
 
-    private ImageRenderable[] idleFrames;
-    private ImageRenderable[] runFrames;
-    private ImageRenderable[] jumpFrames;
-    private Renderable idleAnimation;
+    private final Renderable idleAnimation;
     private boolean isJumping = false;
     private float currentEnergy = MAX_ENERGY;
 
@@ -171,56 +171,67 @@ public class Avatar extends GameObject {
     public Avatar(Vector2 topLeftCorner,
                   UserInputListener inputListener,
                   ImageReader imageReader) {
+        this(topLeftCorner,
+                inputListener::isKeyPressed,
+                new AnimationRenderable(readFrames(imageReader, IDLE0_PATH, IDLE1_PATH, IDLE2_PATH, IDLE3_PATH),
+                        ANIMATION_FRAME_DURATION),
+                new AnimationRenderable(readFrames(imageReader, RUN0_PATH, RUN1_PATH, RUN2_PATH, RUN3_PATH),
+                        ANIMATION_FRAME_DURATION),
+                new AnimationRenderable(readFrames(imageReader, JUMP0_PATH, JUMP1_PATH, JUMP2_PATH, JUMP3_PATH),
+                        ANIMATION_FRAME_DURATION));
+    }
+
+    /**
+     * Avatar constructor that does not depend on a window, e.g. for headless simulations with scripted
+     * input.
+     *
+     * @param topLeftCorner The initial position of the avatar.
+     * @param isKeyPressed  Tells whether the key with the given key code is pressed.
+     * @param idleAnimation The renderable of the idle state.
+     * @param runAnimation  The renderable of the running state.
+     * @param jumpAnimation The renderable of the jumping state.
+     */
+    public Avatar(Vector2 topLeftCorner,
+                  IntPredicate isKeyPressed,
+                  Renderable idleAnimation,
+                  Renderable runAnimation,
+                  Renderable jumpAnimation) {
 
         super(topLeftCorner,
                 Vector2.ONES.mult(AVATAR_SIZE),
-                new ImageRenderable(imageReader.readImage(IDLE0_PATH,
-                        false).getImage()));
-
-        setFrames(imageReader);
+                idleAnimation);
 
-        this.idleAnimation = new AnimationRenderable(idleFrames, ANIMATION_FRAME_DURATION);
-        this.runAnimation = new AnimationRenderable(runFrames, ANIMATION_FRAME_DURATION);
-        this.jumpAnimation = new AnimationRenderable(jumpFrames, ANIMATION_FRAME_DURATION);
+        this.idleAnimation = idleAnimation;
+        this.runAnimation = runAnimation;
+        this.jumpAnimation = jumpAnimation;
 
         setIdleState();
 
         physics().preventIntersectionsFromDirection(Vector2.ZERO);
         transform().setAccelerationY(GRAVITY);
-        this.inputListener = inputListener;
-        this.jumpObservers = new ArrayList<>();
+        this.isKeyPressed = isKeyPressed;
+        this.jumpObservers = new JumpObserverRegistry(DEFAULT_JUMP_NOTIFY_RADIUS);
         setTag(AVATAR_TAG);
 
     }
 
     /**
-     * Initializes the frames for the avatar's animations: idle, running, and jumping.
+     * Reads the frames of one of the avatar's animations.
      *
      * @param imageReader The image reader for loading the animation frames.
+     * @param paths       The paths of the frames, in order.
+     * @return The frames of the animation.
      */
-    private void setFrames(ImageReader imageReader) {
-        this.idleFrames = new ImageRenderable[]{
-                new ImageRenderable(imageReader.readImage(IDLE0_PATH, false).getImage()),
-                new ImageRenderable(imageReader.readImage(IDLE1_PATH, false).getImage()),
-                new ImageRenderable(imageReader.readImage(IDLE2_PATH, false).getImage()),
-                new ImageRenderable(imageReader.readImage(IDLE3_PATH, false).getImage())
-        };
-        this.runFrames = new ImageRenderable[]{
-                new ImageRenderable(imageReader.readImage(RUN0_PATH, false).getImage()),
-                new ImageRenderable(imageReader.readImage(RUN1_PATH, false).getImage()),
-                new ImageRenderable(imageReader.readImage(RUN2_PATH, false).getImage()),
-                new ImageRenderable(imageReader.readImage(RUN3_PATH, false).getImage()),
-        };
-        this.jumpFrames = new ImageRenderable[]{
-                new ImageRenderable(imageReader.readImage(JUMP0_PATH, false).getImage()),
-                new ImageRenderable(imageReader.readImage(JUMP1_PATH, false).getImage()),
-                new ImageRenderable(imageReader.readImage(JUMP2_PATH, false).getImage()),
-                new ImageRenderable(imageReader.readImage(JUMP3_PATH, false).getImage())
-        };
+    private static ImageRenderable[] readFrames(ImageReader imageReader, String... paths) {
+        ImageRenderable[] frames = new ImageRenderable[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            frames[i] = new ImageRenderable(imageReader.readImage(paths[i], false).getImage());
+        }
+        return frames;
     }
 
     /**
-     * Updates the avatar's state. This method is called once per frame.
+     * Updates the avatar's state. This method is called once per simulation tick.
      *
      * @param deltaTime The time that has passed since the last frame.
      */
@@ -229,20 +240,20 @@ public class Avatar extends GameObject {
         super.update(deltaTime);
         float xVel = 0;
 
-        if (inputListener.isKeyPressed(KeyEvent.VK_LEFT)) {
-            xVel = runLeft(xVel);
+        if (isKeyPressed.test(KeyEvent.VK_LEFT)) {
+            xVel = runLeft(xVel, deltaTime);
 
-        } else if (inputListener.isKeyPressed(KeyEvent.VK_RIGHT)) {
-            xVel = runRight(xVel);
+        } else if (isKeyPressed.test(KeyEvent.VK_RIGHT)) {
+            xVel = runRight(xVel, deltaTime);
 
-        } else if (inputListener.isKeyPressed(KeyEvent.VK_SPACE) &&
+        } else if (isKeyPressed.test(KeyEvent.VK_SPACE) &&
                 getVelocity().y() == 0) {
             jump();
         } else {
-            idle();
+            idle(deltaTime);
         }
          transform().setVelocityX(xVel);
-         if (!inputListener.isKeyPressed(KeyEvent.VK_SPACE) &&
+         if (!isKeyPressed.test(KeyEvent.VK_SPACE) &&
                  isJumping &&
                  getVelocity().y() == 0) {
              isJumping = false;
@@ -255,26 +266,54 @@ public class Avatar extends GameObject {
      * Adds a jump observer to the avatar.
      *
      * @param observer The observer to be added.
+     * @param x        The x-coordinate of the observer.
+     */
+    public void addJumpObserver(JumpObserver observer, float x) {
+        jumpObservers.register(observer, x);
+    }
+
+    /**
+     * Removes a jump observer from the avatar, e.g. when its object leaves the world.
+     *
+     * @param observer The observer to be removed.
      */
-    public void addJumpObserver(JumpObserver observer) {
-        jumpObservers.add(observer);
+    public void removeJumpObserver(JumpObserver observer) {
+        jumpObservers.unregister(observer);
     }
 
     /**
-     * Notifies all jump observers about a jump event.
+     * Sets the distance from the avatar within which jump observers are notified.
+     *
+     * @param radius The notification radius.
+     */
+    public void setJumpNotifyRadius(float radius) {
+        jumpObservers.setRadius(radius);
+    }
+
+    /**
+     * Notifies the jump observers near the avatar about a jump event, recording how many were notified
+     * and how long it took as a JDK Flight Recorder event.
      */
     private void notifyJumpListeners() {
-        for (JumpObserver observer : jumpObservers) {
-            observer.onJump();
+        JumpEvent event = new JumpEvent();
+        event.begin();
+        float x = getCenter().x();
+        int observers = jumpObservers.notifyNear(x);
+        if (event.shouldCommit()) {
+            event.avatarX = x;
+            event.observers = observers;
+            event.commit();
         }
     }
 
     /**
      * Handles the idle state of the avatar. Increases energy if the avatar is idle and not jumping.
+     *
+     * @param deltaTime The time that has passed since the last frame.
      */
-    private void idle() {
+    private void idle(float deltaTime) {
         if (currentEnergy < MAX_ENERGY && !isJumping) {
-            currentEnergy = Math.min(MAX_ENERGY, currentEnergy + ENERGY_GAIN_IDLE);
+            currentEnergy = Math.min(MAX_ENERGY, currentEnergy + ENERGY_GAIN_IDLE * deltaTime);
             this.renderer().setRenderable(idleAnimation);
         }
     }
@@ -297,12 +336,14 @@ public class Avatar extends GameObject {
     /**
      * Handles the left running action of the avatar. Decreases energy and sets velocity for running left.
      *
-     * @param xVel The current horizontal velocity.
+     * @param xVel      The current horizontal velocity.
+     * @param deltaTime The time that has passed since the last frame.
      * @return The updated horizontal velocity.
      */
-    private float runLeft(float xVel) {
-        if (currentEnergy - ENERGY_LOSS_MOVE >= 0) {
-            currentEnergy -= ENERGY_LOSS_MOVE;
+    private float runLeft(float xVel, float deltaTime) {
+        float energyLoss = ENERGY_LOSS_MOVE * deltaTime;
+        if (currentEnergy - energyLoss >= 0) {
+            currentEnergy -= energyLoss;
             xVel -= VELOCITY_X;
             this.renderer().setRenderable(runAnimation);
             this.renderer().setIsFlippedHorizontally(true);
@@ -316,12 +357,14 @@ public class Avatar extends GameObject {
     /**
      * Handles the right running action of the avatar. Decreases energy and sets velocity for running right.
      *
-     * @param xVel The current horizontal velocity.
+     * @param xVel      The current horizontal velocity.
+     * @param deltaTime The time that has passed since the last frame.
      * @return The updated horizontal velocity.
      */
-    private float runRight(float xVel) {
-        if (currentEnergy - ENERGY_LOSS_MOVE >= 0) {
-            currentEnergy -= ENERGY_LOSS_MOVE;
+    private float runRight(float xVel, float deltaTime) {
+        float energyLoss = ENERGY_LOSS_MOVE * deltaTime;
+        if (currentEnergy - energyLoss >= 0) {
+            currentEnergy -= energyLoss;
             xVel += VELOCITY_X;
             this.renderer().setRenderable(runAnimation);
             this.renderer().setIsFlippedHorizontally(false);
@@ -336,10 +379,6 @@ public class Avatar extends GameObject {
      * Sets the avatar's state to idle by setting the idle animation.
      */
     private void setIdleState() {
-        if (idleAnimation == null) {
-            idleAnimation = new AnimationRenderable(idleFrames, 0.2f);
-        }
-
         setCurrentAnimation(idleAnimation);
     }
 
@@ -371,17 +410,24 @@ public class Avatar extends GameObject {
     }
 
     /**
-     * Determines if the avatar should collide with another game object based on its tag.
+     * Determines if the avatar should collide with another game object based on its type.
      *
      * @param other The other game object.
      * @return True if a collision should occur, false otherwise.
      */
     @Override
     public boolean shouldCollideWith(GameObject other) {
-        return super.shouldCollideWith(other) &&
-                (other.getTag().equals(Fruit.FRUIT_TAG) ||
-                other.getTag().equals(Terrain.TERRAIN_TAG) ||
-                other.getTag().equals(Tree.TRUNK_TAG));
+        return super.shouldCollideWith(other) && ObjectTypes.collide(ObjectTypes.AVATAR, other);
+    }
+
+    /**
+     * Gets the type of the avatar.
+     *
+     * @return ObjectTypes.AVATAR.
+     */
+    @Override
+    public int getObjectType() {
+        return ObjectTypes.AVATAR;
     }
 
 }
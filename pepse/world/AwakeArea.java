@@ -0,0 +1,107 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.util.function.Consumer;
+
+/**
+ * The AwakeArea is the rectangle of the world seen by the camera, grown by a margin on every side.
+ * Animated objects outside of it are asleep: their animations are not applied, and when they wake up
+ * their state is computed from the time that has passed, so the cost of animating the world depends on
+ * what is on screen rather than on how much of the world is loaded.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public class AwakeArea {
+    /** Negative margin error message. */
+    private static final String MARGIN_ERROR = "margin must not be negative";
+
+    private final float halfWidth;
+    private final float halfHeight;
+    private float minX;
+    private float maxX;
+    private float minY;
+    private float maxY;
+
+    /**
+     * Constructs an AwakeArea that contains the whole world, for when there is no camera.
+     */
+    public AwakeArea() {
+        this.halfWidth = Float.POSITIVE_INFINITY;
+        this.halfHeight = Float.POSITIVE_INFINITY;
+        this.minX = Float.NEGATIVE_INFINITY;
+        this.maxX = Float.POSITIVE_INFINITY;
+        this.minY = Float.NEGATIVE_INFINITY;
+        this.maxY = Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Constructs an AwakeArea around a camera. Until it is first moved, it contains the whole world.
+     *
+     * @param cameraDimensions The dimensions of the area the camera sees.
+     * @param margin           The distance beyond the camera's edges in which objects stay awake.
+     */
+    public AwakeArea(Vector2 cameraDimensions, float margin) {
+        if (margin < 0) {
+            throw new IllegalArgumentException(MARGIN_ERROR);
+        }
+        this.halfWidth = cameraDimensions.x() / 2 + margin;
+        this.halfHeight = cameraDimensions.y() / 2 + margin;
+        this.minX = Float.NEGATIVE_INFINITY;
+        this.maxX = Float.POSITIVE_INFINITY;
+        this.minY = Float.NEGATIVE_INFINITY;
+        this.maxY = Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Moves the area to follow the camera. Called once per tick.
+     *
+     * @param cameraCenter The center of the area the camera sees.
+     */
+    public void moveTo(Vector2 cameraCenter) {
+        minX = cameraCenter.x() - halfWidth;
+        maxX = cameraCenter.x() + halfWidth;
+        minY = cameraCenter.y() - halfHeight;
+        maxY = cameraCenter.y() + halfHeight;
+    }
+
+    /**
+     * Checks whether a point is in the area.
+     *
+     * @param x The x-coordinate of the point.
+     * @param y The y-coordinate of the point.
+     * @return True if the point is in the area, false otherwise.
+     */
+    public boolean contains(float x, float y) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY;
+    }
+
+    /**
+     * Checks whether the center of a game object is in the area, i.e. whether the object is awake.
+     *
+     * @param object The game object.
+     * @return True if the object is awake, false otherwise.
+     */
+    public boolean contains(GameObject object) {
+        Vector2 center = object.getCenter();
+        return contains(center.x(), center.y());
+    }
+
+    /**
+     * Performs an action on every indexed object whose x-coordinate is within the area's horizontal extent.
+     * The world is much wider than it is tall, so this leaves only the objects around the camera, without
+     * visiting the rest of the loaded world; the action checks the vertical extent with
+     * {@link #contains(float, float)}.
+     *
+     * @param objects The objects, indexed by the x-coordinates of their centers.
+     * @param action  The action.
+     * @param <T>     The type of the objects.
+     * @return The number of objects the action was performed on.
+     */
+    public <T> int forEachInWidth(SpatialIndex<T> objects, Consumer<? super T> action) {
+        float radius = (maxX - minX) / 2;
+        float centerX = Float.isInfinite(radius) ? 0 : minX + radius;
+        return objects.forEachNear(centerX, radius, action);
+    }
+}
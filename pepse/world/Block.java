@@ -11,7 +11,7 @@ import danogl.components.GameObjectPhysics;
  *
  * @author Dana Zilca and Noam Nachum
  */
-public class Block extends GameObject{
+public class Block extends GameObject implements TypedObject {
     /**
      * The fixed size of the block.
      */
@@ -28,4 +28,36 @@ public class Block extends GameObject{
         physics().preventIntersectionsFromDirection(Vector2.ZERO);
         physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
     }
+
+    /**
+     * Rebinds a pooled block to a new position and appearance, so it can be reused.
+     *
+     * @param topLeftCorner The new top-left corner position of the block.
+     * @param renderable The new renderable object representing the block's appearance.
+     */
+    public void reset(Vector2 topLeftCorner, Renderable renderable) {
+        setTopLeftCorner(topLeftCorner);
+        renderer().setRenderable(renderable);
+    }
+
+    /**
+     * Determines if the block should collide with another game object based on its type.
+     *
+     * @param other The other game object.
+     * @return True if a collision should occur, false otherwise.
+     */
+    @Override
+    public boolean shouldCollideWith(GameObject other) {
+        return super.shouldCollideWith(other) && ObjectTypes.collide(ObjectTypes.TERRAIN, other);
+    }
+
+    /**
+     * Gets the type of the block.
+     *
+     * @return ObjectTypes.TERRAIN.
+     */
+    @Override
+    public int getObjectType() {
+        return ObjectTypes.TERRAIN;
+    }
 }
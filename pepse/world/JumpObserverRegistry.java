@@ -0,0 +1,76 @@
+package pepse.world;
+
+/**
+ * The JumpObserverRegistry holds the jump observers of the world in a {@link SpatialIndex} by their
+ * x-coordinates. Observers are unregistered explicitly when their objects leave the world, and a jump
+ * only notifies the observers within a radius of where it happened.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public class JumpObserverRegistry {
+    /** Negative radius error message. */
+    private static final String RADIUS_ERROR = "radius must not be negative";
+
+    private final SpatialIndex<JumpObserver> observers;
+    private float radius;
+
+    /**
+     * Constructs an empty JumpObserverRegistry.
+     *
+     * @param radius Only observers at most this far from a jump are notified of it.
+     */
+    public JumpObserverRegistry(float radius) {
+        setRadius(radius);
+        this.observers = new SpatialIndex<>();
+    }
+
+    /**
+     * Sets the notification radius.
+     *
+     * @param radius Only observers at most this far from a jump are notified of it.
+     */
+    public void setRadius(float radius) {
+        if (radius < 0) {
+            throw new IllegalArgumentException(RADIUS_ERROR);
+        }
+        this.radius = radius;
+    }
+
+    /**
+     * Registers an observer. Registering an observer again moves it to the new x-coordinate.
+     *
+     * @param observer The observer.
+     * @param x        The x-coordinate of the observer.
+     */
+    public void register(JumpObserver observer, float x) {
+        observers.add(observer, x);
+    }
+
+    /**
+     * Unregisters an observer, if it is registered.
+     *
+     * @param observer The observer.
+     */
+    public void unregister(JumpObserver observer) {
+        observers.remove(observer);
+    }
+
+    /**
+     * Notifies the observers within the radius of a jump.
+     *
+     * @param x The x-coordinate of the jump.
+     * @return The number of notified observers.
+     */
+    public int notifyNear(float x) {
+        return observers.forEachNear(x, radius, JumpObserver::onJump);
+    }
+
+    /**
+     * Gets the number of registered observers.
+     *
+     * @return The number of registered observers.
+     */
+    public int size() {
+        return observers.size();
+    }
+}
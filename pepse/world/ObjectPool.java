@@ -0,0 +1,72 @@
+package pepse.world;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Supplier;
+
+/**
+ * The ObjectPool keeps game objects that were removed from the world so they can be reused, instead of
+ * constructing new ones, when the world is extended again. Pooled objects are rebound to their new
+ * position and appearance by whoever obtains them, so once the pool is warm, streaming the world
+ * creates no new objects.
+ *
+ * @param <T> The type of the pooled objects.
+ * @author Dana Zilca and Noam Nachum
+ */
+public class ObjectPool<T> {
+    /** Negative capacity error message. */
+    private static final String CAPACITY_ERROR = "capacity must not be negative";
+
+    private final Supplier<T> factory;
+    private final int capacity;
+    private final Deque<T> free;
+
+    /**
+     * Constructs an empty ObjectPool.
+     *
+     * @param factory  Creates a new object when the pool is empty.
+     * @param capacity The maximal number of idle objects kept; objects released beyond it are dropped.
+     */
+    public ObjectPool(Supplier<T> factory, int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException(CAPACITY_ERROR);
+        }
+        this.factory = factory;
+        this.capacity = capacity;
+        this.free = new ArrayDeque<>();
+    }
+
+    /**
+     * Takes an idle object from the pool, or creates a new one if there is none.
+     * The object still has the state it had when it was released, and should be reset by the caller.
+     *
+     * @return The object.
+     */
+    public T obtain() {
+        T object = free.pollLast();
+        if (object == null) {
+            object = factory.get();
+        }
+        return object;
+    }
+
+    /**
+     * Returns an object to the pool. The object must no longer be in the game.
+     *
+     * @param object The object.
+     */
+    public void release(T object) {
+        if (free.size() < capacity) {
+            free.addLast(object);
+        }
+    }
+
+    /**
+     * Gets the number of idle objects in the pool.
+     *
+     * @return The number of idle objects.
+     */
+    public int size() {
+        return free.size();
+    }
+}
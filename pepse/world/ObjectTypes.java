@@ -0,0 +1,126 @@
+package pepse.world;
+
+import danogl.GameObject;
+
+/**
+ * The ObjectTypes class holds the small integer type IDs of the world's objects and the matrix of which
+ * types collide with each other, as bitmasks. Collision filtering is a lookup in the matrix instead of a
+ * comparison of tags. Objects that are not {@link TypedObject}s collide with none of them.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public final class ObjectTypes {
+    /**
+     * The type of the terrain blocks.
+     */
+    public static final int TERRAIN = 0;
+
+    /**
+     * The type of the tree trunks.
+     */
+    public static final int TRUNK = 1;
+
+    /**
+     * The type of the leaves.
+     */
+    public static final int LEAF = 2;
+
+    /**
+     * The type of the fruit.
+     */
+    public static final int FRUIT = 3;
+
+    /**
+     * The type of the avatar.
+     */
+    public static final int AVATAR = 4;
+
+    /**
+     * The number of types.
+     */
+    private static final int TYPES = 5;
+
+    /**
+     * For each type, the bitmask of the types it collides with. Static objects never collide with each
+     * other, since none of them can move.
+     */
+    private static final int[] COLLISION_MASKS = createCollisionMasks();
+
+    /**
+     * The bitmask of the solid types, which moving objects cannot pass through.
+     */
+    private static final int SOLID_MASK = 1 << TERRAIN | 1 << TRUNK;
+
+    /**
+     * The ObjectTypes class is a utility class and is never instantiated.
+     */
+    private ObjectTypes() {
+    }
+
+    /**
+     * Builds the symmetric collision matrix.
+     *
+     * @return The bitmask of the types each type collides with.
+     */
+    private static int[] createCollisionMasks() {
+        int[] masks = new int[TYPES];
+        allowCollision(masks, AVATAR, TERRAIN);
+        allowCollision(masks, AVATAR, TRUNK);
+        allowCollision(masks, AVATAR, FRUIT);
+        return masks;
+    }
+
+    /**
+     * Lets two types collide with each other.
+     *
+     * @param masks The collision bitmasks.
+     * @param first The first type.
+     * @param second The second type.
+     */
+    private static void allowCollision(int[] masks, int first, int second) {
+        masks[first] |= 1 << second;
+        masks[second] |= 1 << first;
+    }
+
+    /**
+     * Checks whether objects of two types collide.
+     *
+     * @param type      The type of the first object.
+     * @param otherType The type of the second object.
+     * @return True if the types collide, false otherwise.
+     */
+    public static boolean collide(int type, int otherType) {
+        return (COLLISION_MASKS[type] & (1 << otherType)) != 0;
+    }
+
+    /**
+     * Checks whether objects of a type collide with any type at all.
+     *
+     * @param type The type.
+     * @return True if the type collides with at least one type.
+     */
+    public static boolean collidesWithAny(int type) {
+        return COLLISION_MASKS[type] != 0;
+    }
+
+    /**
+     * Checks whether objects of a type are solid, so moving objects cannot pass through them.
+     *
+     * @param type The type.
+     * @return True if the type is solid.
+     */
+    public static boolean isSolid(int type) {
+        return (SOLID_MASK & (1 << type)) != 0;
+    }
+
+    /**
+     * Checks whether an object of the given type collides with another object.
+     *
+     * @param type  The type of the object.
+     * @param other The other object.
+     * @return True if the other object is typed and its type collides with the given type.
+     */
+    public static boolean collide(int type, GameObject other) {
+        return other instanceof TypedObject && collide(type, ((TypedObject) other).getObjectType());
+    }
+}
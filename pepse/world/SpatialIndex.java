@@ -0,0 +1,136 @@
+package pepse.world;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * The SpatialIndex is a one-dimensional index of objects by x-coordinate, bucketed into fixed-width buckets.
+ * Its queries take time proportional to the number of objects they return rather than to the number of
+ * indexed objects.
+ *
+ * @param <T> The type of the indexed objects.
+ * @author Dana Zilca and Noam Nachum
+ */
+public class SpatialIndex<T> {
+    /** The default width of a bucket. */
+    public static final int DEFAULT_BUCKET_WIDTH = 8 * Block.SIZE;
+
+    /** Bucket width error message. */
+    private static final String BUCKET_WIDTH_ERROR = "bucket width must be positive";
+
+    /** Negative radius error message. */
+    private static final String RADIUS_ERROR = "radius must not be negative";
+
+    private final float bucketWidth;
+    private final Map<T, Float> positions;
+    private final NavigableMap<Integer, Set<T>> buckets;
+
+    /**
+     * Constructs an empty SpatialIndex with buckets of the default width.
+     */
+    public SpatialIndex() {
+        this(DEFAULT_BUCKET_WIDTH);
+    }
+
+    /**
+     * Constructs an empty SpatialIndex.
+     *
+     * @param bucketWidth The width of a bucket.
+     */
+    public SpatialIndex(float bucketWidth) {
+        if (bucketWidth <= 0) {
+            throw new IllegalArgumentException(BUCKET_WIDTH_ERROR);
+        }
+        this.bucketWidth = bucketWidth;
+        this.positions = new HashMap<>();
+        this.buckets = new TreeMap<>();
+    }
+
+    /**
+     * Adds an object. Adding an object again moves it.
+     *
+     * @param object The object.
+     * @param x      The x-coordinate of the object.
+     */
+    public void add(T object, float x) {
+        remove(object);
+        positions.put(object, x);
+        buckets.computeIfAbsent(bucketOf(x), bucket -> new LinkedHashSet<>()).add(object);
+    }
+
+    /**
+     * Removes an object, if it is indexed.
+     *
+     * @param object The object.
+     * @return True if the object was indexed.
+     */
+    public boolean remove(T object) {
+        Float x = positions.remove(object);
+        if (x == null) {
+            return false;
+        }
+        int bucket = bucketOf(x);
+        Set<T> objects = buckets.get(bucket);
+        objects.remove(object);
+        if (objects.isEmpty()) {
+            buckets.remove(bucket);
+        }
+        return true;
+    }
+
+    /**
+     * Performs an action on every object within a radius of an x-coordinate.
+     *
+     * @param x      The x-coordinate.
+     * @param radius The radius.
+     * @param action The action.
+     * @return The number of objects the action was performed on.
+     */
+    public int forEachNear(float x, float radius, Consumer<? super T> action) {
+        if (radius < 0) {
+            throw new IllegalArgumentException(RADIUS_ERROR);
+        }
+        int found = 0;
+        for (Set<T> objects : buckets.subMap(bucketOf(x - radius), true, bucketOf(x + radius), true).values()) {
+            for (T object : objects) {
+                if (Math.abs(positions.get(object) - x) <= radius) {
+                    action.accept(object);
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Removes all the objects.
+     */
+    public void clear() {
+        positions.clear();
+        buckets.clear();
+    }
+
+    /**
+     * Gets the number of indexed objects.
+     *
+     * @return The number of objects.
+     */
+    public int size() {
+        return positions.size();
+    }
+
+    /**
+     * Returns the bucket of an x-coordinate.
+     *
+     * @param x The x-coordinate.
+     * @return The bucket index.
+     */
+    private int bucketOf(float x) {
+        return (int) Math.floor(x / bucketWidth);
+    }
+}
@@ -1,17 +1,27 @@
 package pepse.world;
 
+import danogl.GameObject;
+import danogl.gui.rendering.ImageRenderable;
 import danogl.gui.rendering.RectangleRenderable;
+import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
-import pepse.util.ColorSupplier;
 import pepse.util.NoiseGenerator;
+import pepse.util.Palette;
+import pepse.world.chunks.Chunk;
+import pepse.world.chunks.HeightCache;
+import pepse.world.chunks.TerrainImageCache;
 
 import java.awt.Color;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Terrain class is responsible for generating ground blocks and providing
  * the ground height at a given X coordinate.
+ * Only the blocks exposed to the air are collidable blocks; the ground below them is drawn by
+ * a few large fill objects. The blocks of a chunk can be drawn as a single pre-rasterized image instead
+ * of one rectangle each.
  *
  * @author Dana Zilca and Noam Nachum
  */
@@ -27,12 +37,30 @@ public class Terrain {
      */
     public static final String TERRAIN_TAG = "terrain";
 
+    /**
+     * The tag string used to identify the non-collidable ground fill below the exposed blocks.
+     */
+    public static final String TERRAIN_FILL_TAG = "terrain_fill";
+
+    /**
+     * The tag string used to identify the non-collidable pre-rasterized image of the blocks of a chunk.
+     */
+    public static final String TERRAIN_IMAGE_TAG = "terrain_image";
+
+    /** The renderable shared by all the ground fill objects. */
+    private static final Renderable FILL_RENDERABLE = new RectangleRenderable(BASE_GROUND_COLOR);
+
     /** Min max error message*/
     private static final String MIN_MAX_ERROR = "minX must be less than maxX";
 
+    /** The default number of chunks whose column heights are cached. */
+    private static final int DEFAULT_HEIGHT_CACHE_CHUNKS = 64;
+
     private final int groundHeightAtX0;
     private final NoiseGenerator noiseGenerator;
     private final Vector2 windowDims;
+    private final HeightCache heightCache;
+    private final Palette groundPalette;
 
     /**
      * Constructs a Terrain object responsible for generating ground blocks.
@@ -40,46 +68,302 @@ public class Terrain {
      * @param seed A seed for random number generation.
      */
     public Terrain(Vector2 windowDimensions, int seed) {
-        this.groundHeightAtX0 = (int) windowDimensions.y() * 2 / 3;
+        this(windowDimensions, seed, DEFAULT_HEIGHT_CACHE_CHUNKS);
+    }
+
+    /**
+     * Constructs a Terrain object responsible for generating ground blocks.
+     * @param windowDimensions The dimensions of the game window.
+     * @param seed A seed for random number generation.
+     * @param heightCacheChunks The number of chunks whose column heights are cached.
+     */
+    public Terrain(Vector2 windowDimensions, int seed, int heightCacheChunks) {
+        this.groundHeightAtX0 = baseHeightOf(windowDimensions);
         this.noiseGenerator = new NoiseGenerator(seed, groundHeightAtX0);
         this.windowDims = windowDimensions;
+        this.heightCache = new HeightCache(heightCacheChunks, this::computeChunkHeights);
+        this.groundPalette = new Palette(BASE_GROUND_COLOR, seed);
+    }
+
+    /**
+     * Returns the height the ground is generated around, which, with the seed, determines the terrain.
+     * @param windowDimensions The dimensions of the game window.
+     * @return The ground height at x = 0, before the noise is added.
+     */
+    public static int baseHeightOf(Vector2 windowDimensions) {
+        return (int) windowDimensions.y() * 2 / 3;
     }
 
     /**
      * Returns the ground height at a given x-coordinate.
+     * Heights of block-aligned columns are served from the height cache.
      * @param x The x-coordinate.
      * @return The ground height at the given x-coordinate.
      */
     public float groundHeightAt(float x) {
+        if (HeightCache.isCacheable(x)) {
+            return heightCache.heightAt((int) x);
+        }
+        return computeGroundHeight(x);
+    }
+
+    /**
+     * Computes the ground height at a given x-coordinate from the noise.
+     * @param x The x-coordinate.
+     * @return The ground height at the given x-coordinate.
+     */
+    private float computeGroundHeight(float x) {
         float noise = (float) noiseGenerator.noise(x, Block.SIZE * TERRAIN_DEPTH);
         return groundHeightAtX0 + noise;
     }
 
     /**
-     * Creates a list of ground blocks within a specified x-range.
+     * Computes the ground heights of all the columns of a chunk.
+     * @param index The chunk index.
+     * @return The ground heights of the columns of the chunk, in order.
+     */
+    private float[] computeChunkHeights(int index) {
+        float[] heights = new float[Chunk.COLUMNS];
+        noiseGenerator.fill(heights, Chunk.startOf(index), Block.SIZE, Chunk.COLUMNS,
+                Block.SIZE * TERRAIN_DEPTH);
+        for (int column = 0; column < Chunk.COLUMNS; column++) {
+            heights[column] += groundHeightAtX0;
+        }
+        return heights;
+    }
+
+    /**
+     * Gets the cache of column heights, e.g. to read its hit and miss counters.
+     * @return The height cache.
+     */
+    public HeightCache getHeightCache() {
+        return heightCache;
+    }
+
+    /**
+     * Returns the block-aligned y-coordinate of the top block of the column at a given x-coordinate.
+     * @param x The x-coordinate of the column.
+     * @return The y-coordinate of the top block of the column.
+     */
+    public int columnTopAt(int x) {
+        return (int) (Math.floor(groundHeightAt(x) / Block.SIZE) * Block.SIZE);
+    }
+
+    /**
+     * Returns the number of blocks at the top of a column that are exposed to the air, either from above
+     * or from the side of a lower neighbouring column. Only these blocks can ever be touched.
+     * @param columnTop The y-coordinate of the top block of the column.
+     * @param leftTop The y-coordinate of the top block of the column to the left.
+     * @param rightTop The y-coordinate of the top block of the column to the right.
+     * @return The number of exposed blocks in the column, at least one.
+     */
+    public static int exposedBlocks(int columnTop, int leftTop, int rightTop) {
+        return Math.max(1, (Math.max(leftTop, rightTop) - columnTop) / Block.SIZE);
+    }
+
+    /**
+     * Creates the terrain of consecutive columns from their precomputed data.
+     * The exposed blocks of each column are collidable {@link Block}s, while the ground below them is
+     * filled by a single non-collidable object per run of neighbouring columns whose fill starts at the
+     * same height. Blocks are drawn with a ground palette variant picked by their position.
+     * @param minX The x-coordinate of the first column.
+     * @param columnTops The y-coordinate of the top block of each column.
+     * @param exposedBlocks The number of exposed blocks of each column.
+     * @return A list of created terrain objects.
+     */
+    public List<GameObject> createColumns(int minX, int[] columnTops, int[] exposedBlocks) {
+        return createColumns(minX, columnTops, exposedBlocks, createBlockPool(0));
+    }
+
+    /**
+     * Creates the terrain of consecutive columns from their precomputed data, like
+     * {@link #createColumns(int, int[], int[])}, but takes the blocks from a pool of removed blocks.
+     * @param minX The x-coordinate of the first column.
+     * @param columnTops The y-coordinate of the top block of each column.
+     * @param exposedBlocks The number of exposed blocks of each column.
+     * @param blockPool The pool to take the blocks from.
+     * @return A list of created terrain objects.
+     */
+    public List<GameObject> createColumns(int minX,
+                                          int[] columnTops,
+                                          int[] exposedBlocks,
+                                          ObjectPool<Block> blockPool) {
+        return createColumns(minX, columnTops, exposedBlocks, blockPool, null);
+    }
+
+    /**
+     * Creates the terrain of the columns of a chunk from their precomputed data, like
+     * {@link #createColumns(int, int[], int[], ObjectPool)}, but draws all the blocks as a single image,
+     * rasterized into the image cache, and leaves the blocks themselves invisible. If the image does not
+     * fit in the cache, every block is drawn on its own.
+     * @param minX The x-coordinate of the first column, the start of the chunk.
+     * @param columnTops The y-coordinate of the top block of each column.
+     * @param exposedBlocks The number of exposed blocks of each column.
+     * @param blockPool The pool to take the blocks from.
+     * @param imageCache The cache to rasterize the image into, or null to draw every block on its own.
+     * @return A list of created terrain objects.
+     */
+    public List<GameObject> createColumns(int minX,
+                                          int[] columnTops,
+                                          int[] exposedBlocks,
+                                          ObjectPool<Block> blockPool,
+                                          TerrainImageCache imageCache) {
+        List<GameObject> objects = new ArrayList<>();
+        GameObject image = imageCache == null ? null : rasterize(minX, columnTops, exposedBlocks, imageCache);
+        if (image != null) {
+            objects.add(image);
+        }
+        int bottom = (int) (windowDims.y() * 2);
+        int runStart = 0;
+        for (int column = 0; column < columnTops.length; column++) {
+            int x = minX + column * Block.SIZE;
+            for (int i = 0; i < exposedBlocks[column]; i++) {
+                int y = columnTops[column] + i * Block.SIZE;
+                Block block = blockPool.obtain();
+                block.reset(new Vector2(x, y), image == null ? groundPalette.at(x, y) : null);
+                objects.add(block);
+            }
+
+            int next = column + 1;
+            if (next == columnTops.length ||
+                    fillTop(columnTops[next], exposedBlocks[next]) !=
+                            fillTop(columnTops[column], exposedBlocks[column])) {
+                int fillTop = fillTop(columnTops[column], exposedBlocks[column]);
+                if (fillTop < bottom) {
+                    objects.add(createFill(minX + runStart * Block.SIZE,
+                            fillTop,
+                            (next - runStart) * Block.SIZE,
+                            bottom - fillTop));
+                }
+                runStart = next;
+            }
+        }
+        return objects;
+    }
+
+    /**
+     * Rasterizes the blocks of a chunk into a single image, which spans from the highest column top to
+     * the lowest fill top and is transparent outside the blocks.
+     * @param minX The x-coordinate of the first column, the start of the chunk.
+     * @param columnTops The y-coordinate of the top block of each column.
+     * @param exposedBlocks The number of exposed blocks of each column.
+     * @param imageCache The cache to rasterize the image into.
+     * @return A non-collidable object drawing the image, or null if the image does not fit in the cache.
+     */
+    private GameObject rasterize(int minX,
+                                 int[] columnTops,
+                                 int[] exposedBlocks,
+                                 TerrainImageCache imageCache) {
+        int top = Integer.MAX_VALUE;
+        int bottom = Integer.MIN_VALUE;
+        for (int column = 0; column < columnTops.length; column++) {
+            top = Math.min(top, columnTops[column]);
+            bottom = Math.max(bottom, fillTop(columnTops[column], exposedBlocks[column]));
+        }
+        int imageTop = top;
+        int width = columnTops.length * Block.SIZE;
+        int height = bottom - top;
+        ImageRenderable image = imageCache.rasterize(Chunk.indexAt(minX), width, height,
+                pixels -> paintBlocks(pixels, width, minX, imageTop, columnTops, exposedBlocks));
+        if (image == null) {
+            return null;
+        }
+        GameObject object = new GameObject(new Vector2(minX, top), new Vector2(width, height), image);
+        object.setTag(TERRAIN_IMAGE_TAG);
+        return object;
+    }
+
+    /**
+     * Paints every block of consecutive columns, in its ground palette color, into an array of pixels.
+     * @param pixels The ARGB pixels of the image, row by row.
+     * @param width The width of the image.
+     * @param minX The x-coordinate of the left edge of the image.
+     * @param top The y-coordinate of the top edge of the image.
+     * @param columnTops The y-coordinate of the top block of each column.
+     * @param exposedBlocks The number of exposed blocks of each column.
+     */
+    private void paintBlocks(int[] pixels,
+                             int width,
+                             int minX,
+                             int top,
+                             int[] columnTops,
+                             int[] exposedBlocks) {
+        for (int column = 0; column < columnTops.length; column++) {
+            int x = minX + column * Block.SIZE;
+            for (int i = 0; i < exposedBlocks[column]; i++) {
+                int y = columnTops[column] + i * Block.SIZE;
+                int argb = groundPalette.argbAt(x, y);
+                for (int row = y - top; row < y - top + Block.SIZE; row++) {
+                    int start = row * width + column * Block.SIZE;
+                    Arrays.fill(pixels, start, start + Block.SIZE, argb);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates an empty pool of terrain blocks, for {@link #createColumns(int, int[], int[], ObjectPool)}.
+     * @param capacity The maximal number of idle blocks kept.
+     * @return The pool.
+     */
+    public static ObjectPool<Block> createBlockPool(int capacity) {
+        return new ObjectPool<>(() -> {
+            Block block = new Block(Vector2.ZERO, null);
+            block.setTag(TERRAIN_TAG);
+            return block;
+        }, capacity);
+    }
+
+    /**
+     * Returns the y-coordinate where the fill of a column starts, right below its exposed blocks.
+     * @param columnTop The y-coordinate of the top block of the column.
+     * @param exposedBlocks The number of exposed blocks of the column.
+     * @return The y-coordinate of the top of the fill.
+     */
+    private static int fillTop(int columnTop, int exposedBlocks) {
+        return columnTop + exposedBlocks * Block.SIZE;
+    }
+
+    /**
+     * Creates a non-collidable object filling the ground below the exposed blocks.
+     * @param x The x-coordinate of the fill.
+     * @param y The y-coordinate of the top of the fill.
+     * @param width The width of the fill.
+     * @param height The height of the fill.
+     * @return The created fill object.
+     */
+    private static GameObject createFill(int x, int y, int width, int height) {
+        GameObject fill = new GameObject(new Vector2(x, y), new Vector2(width, height), FILL_RENDERABLE);
+        fill.setTag(TERRAIN_FILL_TAG);
+        return fill;
+    }
+
+    /**
+     * Creates the terrain objects within a specified x-range.
      * @param minX The minimum x-coordinate.
      * @param maxX The maximum x-coordinate.
-     * @return A list of created ground blocks.
+     * @return A list of created terrain objects.
      */
-    public List<Block> createInRange(int minX, int maxX) {
-        List<Block> blocks = new ArrayList<>();
-
+    public List<GameObject> createInRange(int minX, int maxX) {
         if (minX >= maxX) {
             throw new IllegalArgumentException(MIN_MAX_ERROR);
         }
 
-        int min = (int) (Math.floor((double) (minX - Block.SIZE) / Block.SIZE) * Block.SIZE);
-        int max = (int) (Math.ceil((double) (maxX + Block.SIZE) / Block.SIZE) * Block.SIZE);
-
-        for (int x = min; x < max; x += Block.SIZE) {
-            float groundHeight = (float) Math.floor(groundHeightAt(x) / Block.SIZE) * Block.SIZE;
-            for (int y = (int) groundHeight; y < windowDims.y()*2; y += Block.SIZE) {
-                Block block = new Block(new Vector2(x, y),
-                        new RectangleRenderable(ColorSupplier.approximateColor(BASE_GROUND_COLOR)));
-                block.setTag(TERRAIN_TAG);
-                blocks.add(block);
-            }
+        int min = (int) (Math.floor((double) minX / Block.SIZE) * Block.SIZE);
+        int max = (int) (Math.ceil((double) maxX / Block.SIZE) * Block.SIZE);
+        int columns = (max - min) / Block.SIZE;
+        int[] columnTops = new int[columns];
+        int[] exposedBlocks = new int[columns];
+        int leftTop = columnTopAt(min - Block.SIZE);
+        for (int column = 0; column < columns; column++) {
+            columnTops[column] = columnTopAt(min + column * Block.SIZE);
+        }
+        for (int column = 0; column < columns; column++) {
+            int rightTop = column + 1 < columns ?
+                    columnTops[column + 1] : columnTopAt(min + (column + 1) * Block.SIZE);
+            exposedBlocks[column] = exposedBlocks(columnTops[column], leftTop, rightTop);
+            leftTop = columnTops[column];
         }
-        return blocks;
+        return createColumns(min, columnTops, exposedBlocks);
     }
 }
@@ -0,0 +1,15 @@
+package pepse.world;
+
+/**
+ * A game object of one of the {@link ObjectTypes}, which decide what it collides with.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public interface TypedObject {
+    /**
+     * Gets the type of the object.
+     *
+     * @return One of the type IDs of {@link ObjectTypes}.
+     */
+    int getObjectType();
+}
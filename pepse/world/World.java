@@ -0,0 +1,450 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.collisions.Layer;
+import danogl.util.Vector2;
+import pepse.diagnostics.ChunkLoadEvent;
+import pepse.diagnostics.ChunkStreamEvent;
+import pepse.diagnostics.ChunkUnloadEvent;
+import pepse.diagnostics.SpawnEvent;
+import pepse.diagnostics.WorldUpdateEvent;
+import pepse.world.chunks.Chunk;
+import pepse.world.chunks.ChunkData;
+import pepse.world.chunks.ChunkGenerator;
+import pepse.world.chunks.ChunkManager;
+import pepse.world.chunks.ChunkStore;
+import pepse.world.chunks.SpawnQueue;
+import pepse.world.chunks.TerrainImageCache;
+import pepse.world.collisions.CollisionSystem;
+import pepse.world.trees.Flora;
+import pepse.world.trees.FloraData;
+import pepse.world.trees.Fruit;
+import pepse.world.trees.FruitRegrowth;
+import pepse.world.trees.JumpAnimation;
+import pepse.world.trees.Leaf;
+import pepse.world.trees.Tree;
+import pepse.world.trees.TreePools;
+import pepse.world.trees.Wind;
+
+import java.util.List;
+
+/**
+ * The World class streams the procedurally generated world (terrain and flora) around the avatar.
+ * It loads and unloads chunks as the avatar moves and hands their objects to a {@link WorldObjects}
+ * over several frames, so it runs the same inside the game window and in a headless simulation.
+ * Streaming runs once per rendered frame, and the simulation (collisions and animations) once per tick,
+ * so the streaming budgets do not grow with the number of ticks in a frame.
+ * When given a {@link ChunkStore}, visited chunks and the ripeness of their fruit are kept on disk.
+ * The collidable objects the spawn queue has put in the game are kept in a {@link CollisionSystem}, which
+ * collides the avatar with them until they are taken out again.
+ * The blocks and tree parts of unloaded chunks are pooled and reused by the chunks loaded next.
+ * The blocks of each loaded chunk are drawn as one image from a {@link TerrainImageCache}.
+ * Only the objects in an {@link AwakeArea} around the camera, which follows the avatar, are animated.
+ * Updates, chunk streaming, chunk loads and unloads and spawning are recorded as JDK Flight Recorder
+ * events.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public class World {
+    /**
+     * Number of chunks beyond the load radius before a chunk is unloaded.
+     */
+    private static final int CHUNK_HYSTERESIS = 1;
+
+    /**
+     * Number of chunks beyond the load radius to generate ahead of the avatar.
+     */
+    private static final int CHUNK_PREFETCH = 2;
+
+    /**
+     * Maximal number of generated chunks to add to the game in a single frame.
+     */
+    private static final int CHUNKS_PER_FRAME = 1;
+
+    /**
+     * Maximal number of world objects added to or removed from the game in a single frame.
+     */
+    private static final int SPAWNS_PER_FRAME = 250;
+
+    /**
+     * Time budget for adding and removing world objects in a single frame, in microseconds.
+     */
+    private static final long SPAWN_BUDGET_MICROS = 2000;
+
+    /**
+     * Maximal number of idle objects of each type kept for reuse by the chunks loaded next.
+     */
+    private static final int POOL_CAPACITY = 4096;
+
+    /**
+     * Maximal total size of the pre-rasterized terrain images of the loaded chunks, in bytes.
+     */
+    private static final long TERRAIN_IMAGE_BYTES = 32L * 1024 * 1024;
+
+    /**
+     * Distance beyond the edges of the camera in which objects are still animated.
+     */
+    private static final float AWAKE_MARGIN = 2 * Block.SIZE;
+
+    private final Avatar avatar;
+    private final Terrain terrain;
+    private final ChunkGenerator chunkGenerator;
+    private final ChunkManager chunkManager;
+    private final SpawnQueue spawnQueue;
+    private final AwakeArea awakeArea;
+    private final JumpAnimation jumpAnimation;
+    private final Wind wind;
+    private final FruitRegrowth fruitRegrowth;
+    private final CollisionSystem collisions;
+    private final ObjectPool<Block> blockPool;
+    private final TreePools treePools;
+    private final TerrainImageCache terrainImages;
+
+    /**
+     * Constructs a World that is generated from scratch every time.
+     *
+     * @param windowDimensions The dimensions of the game window.
+     * @param seed             The seed of the world.
+     * @param loadWidth        The width of the world to keep loaded on each side of the avatar, which is
+     *                         also how far from the avatar its jumps are noticed.
+     * @param avatar           The avatar the world is streamed around.
+     * @param worldObjects     Where the objects of the world are added to and removed from.
+     */
+    public World(Vector2 windowDimensions,
+                 int seed,
+                 float loadWidth,
+                 Avatar avatar,
+                 WorldObjects worldObjects) {
+        this(windowDimensions, seed, loadWidth, avatar, worldObjects, null);
+    }
+
+    /**
+     * Constructs a World that streams chunks as fast as the machine allows.
+     *
+     * @param windowDimensions The dimensions of the game window.
+     * @param seed             The seed of the world.
+     * @param loadWidth        The width of the world to keep loaded on each side of the avatar, which is
+     *                         also how far from the avatar its jumps are noticed.
+     * @param avatar           The avatar the world is streamed around.
+     * @param worldObjects     Where the objects of the world are added to and removed from.
+     * @param store            The store keeping the visited chunks, or null to generate them every time.
+     */
+    public World(Vector2 windowDimensions,
+                 int seed,
+                 float loadWidth,
+                 Avatar avatar,
+                 WorldObjects worldObjects,
+                 ChunkStore store) {
+        this(windowDimensions, seed, loadWidth, avatar, worldObjects, store, false);
+    }
+
+    /**
+     * Constructs a World.
+     *
+     * @param windowDimensions The dimensions of the game window.
+     * @param seed             The seed of the world.
+     * @param loadWidth        The width of the world to keep loaded on each side of the avatar, which is
+     *                         also how far from the avatar its jumps are noticed.
+     * @param avatar           The avatar the world is streamed around.
+     * @param worldObjects     Where the objects of the world are added to and removed from.
+     * @param store            The store keeping the visited chunks, or null to generate them every time.
+     * @param deterministic    Whether to generate chunks on the calling thread and spawn their objects by
+     *                         count alone, without a time budget, so the same input always streams the
+     *                         world the same way, however fast the machine is.
+     */
+    public World(Vector2 windowDimensions,
+                 int seed,
+                 float loadWidth,
+                 Avatar avatar,
+                 WorldObjects worldObjects,
+                 ChunkStore store,
+                 boolean deterministic) {
+        this.avatar = avatar;
+        avatar.setJumpNotifyRadius(loadWidth);
+        this.terrain = new Terrain(windowDimensions, seed);
+        this.awakeArea = new AwakeArea(windowDimensions, AWAKE_MARGIN);
+        this.jumpAnimation = new JumpAnimation(awakeArea);
+        this.wind = new Wind(awakeArea, seed);
+        this.fruitRegrowth = new FruitRegrowth(awakeArea);
+        this.collisions = new CollisionSystem();
+        collisions.addDynamic(avatar);
+        this.spawnQueue = new SpawnQueue(worldObjects,
+                SPAWNS_PER_FRAME,
+                deterministic ? 0 : SPAWN_BUDGET_MICROS,
+                Chunk.WIDTH,
+                collisions::addStatic,
+                this::recycle);
+        this.blockPool = Terrain.createBlockPool(POOL_CAPACITY);
+        this.terrainImages = new TerrainImageCache(TERRAIN_IMAGE_BYTES);
+        this.treePools = new TreePools(avatar::addEnergy, jumpAnimation, fruitRegrowth, seed, POOL_CAPACITY);
+        Flora flora = new Flora(terrain::groundHeightAt, treePools, seed);
+        int loadRadius = (int) Math.ceil(loadWidth / Chunk.WIDTH);
+        this.chunkGenerator = new ChunkGenerator(terrain, flora, store, deterministic);
+        this.chunkManager = new ChunkManager(chunkGenerator,
+                this::loadChunk,
+                this::unloadChunk,
+                loadRadius,
+                CHUNK_HYSTERESIS,
+                CHUNK_PREFETCH,
+                CHUNKS_PER_FRAME);
+    }
+
+    /**
+     * Synchronously loads the chunks around the avatar and adds all their objects.
+     * Used when the world is first created, before there is anything to stand on.
+     */
+    public void loadAroundAvatar() {
+        chunkManager.loadAround(avatar.getCenter().x());
+        spawnQueue.flush();
+    }
+
+    /**
+     * Collides the avatar with the world and advances the world's shared animations for the objects
+     * around the camera. Called once per tick, after the game objects were updated.
+     *
+     * @param deltaTime The simulated time of the tick, in seconds.
+     */
+    public void update(float deltaTime) {
+        WorldUpdateEvent event = new WorldUpdateEvent();
+        event.begin();
+        collisions.update();
+        awakeArea.moveTo(avatar.getCenter());
+        wind.update(deltaTime);
+        jumpAnimation.update(deltaTime);
+        fruitRegrowth.update(deltaTime);
+        if (event.shouldCommit()) {
+            event.loadedChunks = chunkManager.loadedCount();
+            event.pendingSpawns = spawnQueue.pendingCount();
+            event.commit();
+        }
+    }
+
+    /**
+     * Loads and unloads chunks based on the avatar's position, and adds and removes the queued objects
+     * of the loaded and unloaded chunks within the spawn budget. Called once per frame, after the ticks
+     * of the frame, so the budgets hold however many ticks a frame runs.
+     */
+    public void stream() {
+        float avatarX = avatar.getCenter().x();
+        streamChunks(avatarX);
+        spawn(avatarX);
+    }
+
+    /**
+     * Loads and unloads chunks around the avatar.
+     *
+     * @param avatarX The x-coordinate of the avatar.
+     */
+    private void streamChunks(float avatarX) {
+        ChunkStreamEvent event = new ChunkStreamEvent();
+        event.begin();
+        chunkManager.update(avatarX);
+        if (event.shouldCommit()) {
+            event.avatarX = avatarX;
+            event.loadedChunks = chunkManager.loadedCount();
+            event.commit();
+        }
+    }
+
+    /**
+     * Adds and removes the queued objects of loaded and unloaded chunks, within the spawn budget.
+     *
+     * @param avatarX The x-coordinate of the avatar.
+     */
+    private void spawn(float avatarX) {
+        SpawnEvent event = new SpawnEvent();
+        event.begin();
+        int operations = spawnQueue.drain(avatarX);
+        if (event.shouldCommit()) {
+            event.operations = operations;
+            event.pending = spawnQueue.pendingCount();
+            event.commit();
+        }
+    }
+
+    /**
+     * Gets the terrain of the world.
+     *
+     * @return The terrain.
+     */
+    public Terrain getTerrain() {
+        return terrain;
+    }
+
+    /**
+     * Saves the fruit of the loaded chunks, then stops the background chunk generation and closes the
+     * chunk store. Must be called on the game-loop thread, like the rest of the world's methods.
+     */
+    public void shutdown() {
+        chunkManager.forEachLoaded(this::saveFruit);
+        chunkGenerator.shutdown();
+    }
+
+    /**
+     * Creates the objects of a generated chunk and queues them to be added.
+     *
+     * @param data The generated data of the chunk.
+     * @return The loaded chunk.
+     */
+    private Chunk loadChunk(ChunkData data) {
+        ChunkLoadEvent event = new ChunkLoadEvent();
+        event.begin();
+        Chunk chunk = new Chunk(data);
+        long start = System.nanoTime();
+        createTerrain(chunk, data);
+        int terrainObjects = chunk.size();
+        long terrainEnd = System.nanoTime();
+        createFlora(chunk, data);
+        if (event.shouldCommit()) {
+            event.chunkIndex = chunk.getIndex();
+            event.terrainObjects = terrainObjects;
+            event.floraObjects = chunk.size() - terrainObjects;
+            event.terrainTime = terrainEnd - start;
+            event.floraTime = System.nanoTime() - terrainEnd;
+            event.commit();
+        }
+        return chunk;
+    }
+
+    /**
+     * Saves the fruit of the given chunk, queues all its objects for removal, stops them from
+     * observing jumps, swaying in the wind and regrowing, and evicts its terrain image. The objects are
+     * recycled once they are out of the game.
+     *
+     * @param chunk The chunk to unload.
+     */
+    private void unloadChunk(Chunk chunk) {
+        ChunkUnloadEvent event = new ChunkUnloadEvent();
+        event.begin();
+        int objects = chunk.size();
+        saveFruit(chunk);
+        for (int i = 0; i < chunk.size(); i++) {
+            GameObject object = chunk.getObject(i);
+            if (object instanceof JumpObserver) {
+                avatar.removeJumpObserver((JumpObserver) object);
+            }
+            if (object instanceof Leaf) {
+                wind.remove((Leaf) object);
+                jumpAnimation.remove((Leaf) object);
+            }
+            if (object instanceof Fruit) {
+                fruitRegrowth.remove((Fruit) object);
+            }
+            spawnQueue.despawn(object, chunk.getLayer(i));
+        }
+        terrainImages.remove(chunk.getIndex());
+        chunk.clear();
+        if (event.shouldCommit()) {
+            event.chunkIndex = chunk.getIndex();
+            event.objects = objects;
+            event.commit();
+        }
+    }
+
+    /**
+     * Stops the avatar from colliding with a block or a tree part that is out of the game, and returns it
+     * to its pool.
+     *
+     * @param object The removed game object.
+     */
+    private void recycle(GameObject object) {
+        collisions.removeStatic(object);
+        if (object instanceof Block) {
+            blockPool.release((Block) object);
+        } else {
+            treePools.release(object);
+        }
+    }
+
+    /**
+     * Saves the chunk with the ripeness of its fruit, unless all of them are ripe now and were ripe when the
+     * chunk was loaded, in which case the stored chunk is already up to date.
+     * The fruit of a chunk are in the order of its trees.
+     *
+     * @param chunk The chunk.
+     */
+    private void saveFruit(Chunk chunk) {
+        ChunkData data = chunk.getData();
+        float[] ripeness = new float[data.getFlora().treeCount()];
+        int tree = 0;
+        boolean allRipe = true;
+        for (int i = 0; i < chunk.size(); i++) {
+            if (chunk.getObject(i) instanceof Fruit) {
+                ripeness[tree] = ((Fruit) chunk.getObject(i)).getRipeness();
+                allRipe &= ripeness[tree] >= 1;
+                tree++;
+            }
+        }
+        if (!allRipe || !data.isAllFruitRipe()) {
+            chunkGenerator.save(data.withFruitRipeness(ripeness));
+        }
+    }
+
+    /**
+     * Creates the terrain of the given chunk.
+     *
+     * @param chunk The chunk to create the terrain in.
+     * @param data  The generated data of the chunk.
+     */
+    private void createTerrain(Chunk chunk, ChunkData data) {
+        List<GameObject> terrainObjects = terrain.createColumns(chunk.getStart(),
+                data.getColumnTops(),
+                data.getExposedBlocks(),
+                blockPool,
+                terrainImages);
+        for (GameObject terrainObject : terrainObjects) {
+            addToChunk(chunk, terrainObject, Layer.STATIC_OBJECTS);
+        }
+    }
+
+    /**
+     * Creates the flora (trees and leaves) of the given chunk, and starts swaying its leaves.
+     *
+     * @param chunk The chunk to create the flora in.
+     * @param data  The generated data of the chunk.
+     */
+    private void createFlora(Chunk chunk, ChunkData data) {
+        FloraData flora = data.getFlora();
+        for (int i = 0; i < flora.treeCount(); i++) {
+            Tree tree = new Tree(flora, i, treePools);
+            for (Fruit fruit : tree.getFruit()) {
+                fruit.setRipeness(data.fruitRipeness(i));
+            }
+            addTreeObject(chunk, tree.getTrunk(), Layer.STATIC_OBJECTS);
+            for (Leaf leaf : tree.getLeaves()) {
+                addTreeObject(chunk, leaf, Layer.FOREGROUND);
+                wind.add(leaf);
+            }
+            for (Fruit fruit : tree.getFruit()) {
+                addTreeObject(chunk, fruit, Layer.STATIC_OBJECTS);
+            }
+        }
+    }
+
+    /**
+     * Adds a part of a tree to the chunk and registers it as a jump observer of the avatar, until the
+     * chunk is unloaded.
+     *
+     * @param chunk  The chunk that owns the object.
+     * @param object The tree part.
+     * @param layer  The layer to add the object to.
+     * @param <T>    The type of the tree part.
+     */
+    private <T extends GameObject & JumpObserver> void addTreeObject(Chunk chunk, T object, int layer) {
+        avatar.addJumpObserver(object, object.getCenter().x());
+        addToChunk(chunk, object, layer);
+    }
+
+    /**
+     * Queues a game object to be added and adds it to the chunk that owns it. The avatar collides with it
+     * once it is in the game.
+     *
+     * @param chunk  The chunk that owns the object.
+     * @param object The game object.
+     * @param layer  The layer to add the object to.
+     */
+    private void addToChunk(Chunk chunk, GameObject object, int layer) {
+        spawnQueue.spawn(object, layer);
+        chunk.add(object, layer);
+    }
+}
@@ -0,0 +1,48 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+
+/**
+ * An interface for the place world objects live in, such as the game's object collection or a headless
+ * simulation. Lets the world be streamed without depending on a window.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public interface WorldObjects {
+    /**
+     * Adds a game object to the given layer.
+     *
+     * @param object The game object.
+     * @param layer  The layer to add the object to.
+     */
+    void addObject(GameObject object, int layer);
+
+    /**
+     * Removes a game object from the given layer.
+     *
+     * @param object The game object.
+     * @param layer  The layer the object lives in.
+     */
+    void removeObject(GameObject object, int layer);
+
+    /**
+     * Wraps a game object collection.
+     *
+     * @param gameObjects The game object collection.
+     * @return WorldObjects adding to and removing from the collection.
+     */
+    static WorldObjects of(GameObjectCollection gameObjects) {
+        return new WorldObjects() {
+            @Override
+            public void addObject(GameObject object, int layer) {
+                gameObjects.addGameObject(object, layer);
+            }
+
+            @Override
+            public void removeObject(GameObject object, int layer) {
+                gameObjects.removeGameObject(object, layer);
+            }
+        };
+    }
+}
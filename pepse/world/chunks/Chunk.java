@@ -0,0 +1,138 @@
+package pepse.world.chunks;
+
+import danogl.GameObject;
+import pepse.world.Block;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A Chunk is a fixed-width vertical slice of the world, identified by its chunk index.
+ * It owns every game object generated inside its range (blocks, trunks, leaves and fruit)
+ * together with the layer each object was added to, so it can be loaded and unloaded as a unit.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public class Chunk {
+    /**
+     * The number of block columns in a chunk.
+     */
+    public static final int COLUMNS = 16;
+
+    /**
+     * The width of a chunk in pixels.
+     */
+    public static final int WIDTH = COLUMNS * Block.SIZE;
+
+    private final int index;
+    private final ChunkData data;
+    private final List<GameObject> objects;
+    private final List<Integer> layers;
+
+    /**
+     * Constructs an empty chunk.
+     *
+     * @param data The data the chunk is created from.
+     */
+    public Chunk(ChunkData data) {
+        this.index = data.getIndex();
+        this.data = data;
+        this.objects = new ArrayList<>();
+        this.layers = new ArrayList<>();
+    }
+
+    /**
+     * Returns the index of the chunk that contains the given x-coordinate.
+     *
+     * @param x The x-coordinate in world space.
+     * @return The chunk index.
+     */
+    public static int indexAt(float x) {
+        return (int) Math.floor(x / WIDTH);
+    }
+
+    /**
+     * Returns the x-coordinate where the chunk with the given index starts.
+     *
+     * @param index The chunk index.
+     * @return The first x-coordinate of the chunk.
+     */
+    public static int startOf(int index) {
+        return index * WIDTH;
+    }
+
+    /**
+     * Adds a game object to the chunk.
+     *
+     * @param object The game object.
+     * @param layer  The layer the object lives in.
+     */
+    public void add(GameObject object, int layer) {
+        objects.add(object);
+        layers.add(layer);
+    }
+
+    /**
+     * Gets the index of the chunk.
+     *
+     * @return The chunk index.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the data the chunk was created from.
+     *
+     * @return The chunk data.
+     */
+    public ChunkData getData() {
+        return data;
+    }
+
+    /**
+     * Gets the first x-coordinate of the chunk.
+     *
+     * @return The first x-coordinate of the chunk.
+     */
+    public int getStart() {
+        return startOf(index);
+    }
+
+    /**
+     * Gets the number of game objects owned by the chunk.
+     *
+     * @return The number of game objects.
+     */
+    public int size() {
+        return objects.size();
+    }
+
+    /**
+     * Gets the game object at the given position in the chunk.
+     *
+     * @param i The position of the object.
+     * @return The game object.
+     */
+    public GameObject getObject(int i) {
+        return objects.get(i);
+    }
+
+    /**
+     * Gets the layer of the game object at the given position in the chunk.
+     *
+     * @param i The position of the object.
+     * @return The layer of the object.
+     */
+    public int getLayer(int i) {
+        return layers.get(i);
+    }
+
+    /**
+     * Forgets every object owned by the chunk.
+     */
+    public void clear() {
+        objects.clear();
+        layers.clear();
+    }
+}
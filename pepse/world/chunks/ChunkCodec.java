@@ -0,0 +1,196 @@
+package pepse.world.chunks;
+
+import pepse.world.trees.FloraData;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The ChunkCodec converts {@link ChunkData} to and from a compact binary format: the terrain column
+ * heights, the tree descriptors and the ripeness of every fruit. The format starts with a magic number
+ * and a version, so stored chunks of an incompatible format are regenerated instead of misread, and
+ * decoding checks every count and length against the bytes that are left, so a corrupt chunk is rejected
+ * as a whole.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public final class ChunkCodec {
+    /**
+     * The magic number every encoded chunk starts with.
+     */
+    private static final int MAGIC = 0x5045434B;
+
+    /**
+     * The version of the format.
+     */
+    private static final short VERSION = 1;
+
+    /**
+     * The size of the fixed part of an encoded chunk: magic, version, index, column count and tree count.
+     */
+    private static final int HEADER_BYTES = Integer.BYTES + Short.BYTES + Integer.BYTES +
+            Short.BYTES + Integer.BYTES;
+
+    /**
+     * The size of the encoded terrain of a single column: its top and its number of exposed blocks.
+     */
+    private static final int COLUMN_BYTES = Integer.BYTES + Short.BYTES;
+
+    /**
+     * The size of an encoded tree: its trunk position, height, number of leaves and fruit ripeness.
+     */
+    private static final int TREE_BYTES = 2 * Float.BYTES + 2 * Short.BYTES + Float.BYTES;
+
+    /**
+     * The size of an encoded leaf: its position.
+     */
+    private static final int LEAF_BYTES = 2 * Float.BYTES;
+
+    /**
+     * Format error message.
+     */
+    private static final String FORMAT_ERROR = "not an encoded chunk of version " + VERSION;
+
+    /**
+     * Index mismatch error message.
+     */
+    private static final String INDEX_ERROR = "encoded chunk has another index: ";
+
+    /**
+     * Column count error message.
+     */
+    private static final String COLUMNS_ERROR = "encoded chunk must have " + Chunk.COLUMNS + " columns, got: ";
+
+    /**
+     * Corrupt chunk error message.
+     */
+    private static final String CORRUPT_ERROR = "encoded chunk is truncated or has a negative count";
+
+    /**
+     * The ChunkCodec is a utility class and is never instantiated.
+     */
+    private ChunkCodec() {
+    }
+
+    /**
+     * Computes the number of bytes a chunk is encoded into.
+     *
+     * @param data The chunk data.
+     * @return The size of the encoded chunk.
+     */
+    public static int encodedSize(ChunkData data) {
+        FloraData flora = data.getFlora();
+        return HEADER_BYTES + data.getColumnTops().length * COLUMN_BYTES +
+                flora.treeCount() * TREE_BYTES + flora.leafCount() * LEAF_BYTES;
+    }
+
+    /**
+     * Encodes a chunk into a new buffer.
+     *
+     * @param data The chunk data.
+     * @return The encoded chunk, ready to be read.
+     */
+    public static ByteBuffer encode(ChunkData data) {
+        ByteBuffer buffer = ByteBuffer.allocate(encodedSize(data));
+        encode(data, buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Encodes a chunk into the given buffer, starting at its position.
+     *
+     * @param data   The chunk data.
+     * @param buffer The buffer, with at least encodedSize(data) bytes remaining.
+     */
+    public static void encode(ChunkData data, ByteBuffer buffer) {
+        int[] columnTops = data.getColumnTops();
+        int[] exposedBlocks = data.getExposedBlocks();
+        FloraData flora = data.getFlora();
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putInt(data.getIndex());
+        buffer.putShort((short) columnTops.length);
+        for (int column = 0; column < columnTops.length; column++) {
+            buffer.putInt(columnTops[column]);
+            buffer.putShort((short) exposedBlocks[column]);
+        }
+        buffer.putInt(flora.treeCount());
+        for (int tree = 0; tree < flora.treeCount(); tree++) {
+            buffer.putFloat(flora.trunkX(tree));
+            buffer.putFloat(flora.trunkY(tree));
+            buffer.putShort((short) flora.trunkHeight(tree));
+            buffer.putShort((short) (flora.leafEnd(tree) - flora.leafStart(tree)));
+            buffer.putFloat(data.fruitRipeness(tree));
+            for (int leaf = flora.leafStart(tree); leaf < flora.leafEnd(tree); leaf++) {
+                buffer.putFloat(flora.leafX(leaf));
+                buffer.putFloat(flora.leafY(leaf));
+            }
+        }
+    }
+
+    /**
+     * Decodes a chunk from the given buffer, starting at its position.
+     *
+     * @param buffer        The buffer holding an encoded chunk.
+     * @param expectedIndex The index of the chunk the buffer was read for.
+     * @return The decoded chunk data.
+     * @throws IllegalArgumentException If the buffer does not hold a whole chunk of this format version,
+     *                                  with the expected index and number of columns.
+     */
+    public static ChunkData decode(ByteBuffer buffer, int expectedIndex) {
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+            throw new IllegalArgumentException(FORMAT_ERROR);
+        }
+        int index = buffer.getInt();
+        if (index != expectedIndex) {
+            throw new IllegalArgumentException(INDEX_ERROR + index);
+        }
+        int columns = buffer.getShort();
+        if (columns != Chunk.COLUMNS) {
+            throw new IllegalArgumentException(COLUMNS_ERROR + columns);
+        }
+        requireRemaining(buffer, columns * COLUMN_BYTES + Integer.BYTES);
+        int[] columnTops = new int[columns];
+        int[] exposedBlocks = new int[columns];
+        for (int column = 0; column < columns; column++) {
+            columnTops[column] = buffer.getInt();
+            exposedBlocks[column] = buffer.getShort();
+        }
+        int treeCount = buffer.getInt();
+        if (treeCount < 0 || treeCount > buffer.remaining() / TREE_BYTES) {
+            throw new IllegalArgumentException(CORRUPT_ERROR);
+        }
+        float[] fruitRipeness = new float[treeCount];
+        FloraData.Builder builder = new FloraData.Builder();
+        for (int tree = 0; tree < treeCount; tree++) {
+            requireRemaining(buffer, TREE_BYTES);
+            float x = buffer.getFloat();
+            float y = buffer.getFloat();
+            int height = buffer.getShort();
+            int leaves = buffer.getShort();
+            fruitRipeness[tree] = buffer.getFloat();
+            if (leaves < 0) {
+                throw new IllegalArgumentException(CORRUPT_ERROR);
+            }
+            requireRemaining(buffer, leaves * LEAF_BYTES);
+            builder.addTree(x, y, height);
+            for (int leaf = 0; leaf < leaves; leaf++) {
+                builder.addLeaf(buffer.getFloat(), buffer.getFloat());
+            }
+        }
+        return new ChunkData(index, columnTops, exposedBlocks, builder.build(), fruitRipeness);
+    }
+
+    /**
+     * Checks that enough bytes are left in a buffer for the next section of an encoded chunk.
+     *
+     * @param buffer The buffer holding an encoded chunk.
+     * @param bytes  The size of the next section.
+     * @throws IllegalArgumentException If fewer bytes are left.
+     */
+    private static void requireRemaining(ByteBuffer buffer, int bytes) {
+        if (buffer.remaining() < bytes) {
+            throw new IllegalArgumentException(CORRUPT_ERROR);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package pepse.world.chunks;
+
+import pepse.world.trees.FloraData;
+
+import java.util.Arrays;
+
+/**
+ * The ChunkData class is the pure data generated for a chunk: the height and number of exposed blocks
+ * of every terrain column, the description of every tree and the ripeness of its fruit. It holds no game
+ * objects, so it can be generated or read off the game-loop thread and turned into a {@link Chunk} later.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public class ChunkData {
+    private final int index;
+    private final int[] columnTops;
+    private final int[] exposedBlocks;
+    private final FloraData flora;
+    private final float[] fruitRipeness;
+
+    /**
+     * Constructs a ChunkData object whose fruit are all ripe.
+     *
+     * @param index        The index of the chunk.
+     * @param columnTops   The y-coordinate of the top block of each terrain column.
+     * @param exposedBlocks The number of exposed blocks of each terrain column.
+     * @param flora        The trees of the chunk.
+     */
+    public ChunkData(int index, int[] columnTops, int[] exposedBlocks, FloraData flora) {
+        this(index, columnTops, exposedBlocks, flora, ripeFruit(flora.treeCount()));
+    }
+
+    /**
+     * Constructs a ChunkData object.
+     *
+     * @param index         The index of the chunk.
+     * @param columnTops    The y-coordinate of the top block of each terrain column.
+     * @param exposedBlocks The number of exposed blocks of each terrain column.
+     * @param flora         The trees of the chunk.
+     * @param fruitRipeness The ripeness of the fruit of each tree, from 0 (just eaten) to 1 (ripe).
+     */
+    public ChunkData(int index, int[] columnTops, int[] exposedBlocks, FloraData flora, float[] fruitRipeness) {
+        this.index = index;
+        this.columnTops = columnTops;
+        this.exposedBlocks = exposedBlocks;
+        this.flora = flora;
+        this.fruitRipeness = fruitRipeness;
+    }
+
+    /**
+     * Creates the ripeness of fruit that are all ripe.
+     *
+     * @param treeCount The number of trees.
+     * @return The ripeness of each tree's fruit.
+     */
+    private static float[] ripeFruit(int treeCount) {
+        float[] ripeness = new float[treeCount];
+        Arrays.fill(ripeness, 1);
+        return ripeness;
+    }
+
+    /**
+     * Gets the index of the chunk.
+     *
+     * @return The chunk index.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the y-coordinate of the top block of each terrain column.
+     *
+     * @return The column tops, one per column of the chunk.
+     */
+    public int[] getColumnTops() {
+        return columnTops;
+    }
+
+    /**
+     * Gets the number of exposed blocks of each terrain column.
+     *
+     * @return The exposed block counts, one per column of the chunk.
+     */
+    public int[] getExposedBlocks() {
+        return exposedBlocks;
+    }
+
+    /**
+     * Gets the trees of the chunk.
+     *
+     * @return The flora data of the chunk.
+     */
+    public FloraData getFlora() {
+        return flora;
+    }
+
+    /**
+     * Gets the ripeness of the fruit of a tree.
+     *
+     * @param tree The tree.
+     * @return The ripeness, from 0 (just eaten) to 1 (ripe).
+     */
+    public float fruitRipeness(int tree) {
+        return fruitRipeness[tree];
+    }
+
+    /**
+     * Checks whether all the fruit of the chunk are ripe.
+     *
+     * @return True if every fruit is ripe.
+     */
+    public boolean isAllFruitRipe() {
+        for (float ripeness : fruitRipeness) {
+            if (ripeness < 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates a copy of this data with a different ripeness of the fruit.
+     *
+     * @param ripeness The ripeness of the fruit of each tree.
+     * @return The new chunk data.
+     */
+    public ChunkData withFruitRipeness(float[] ripeness) {
+        return new ChunkData(index, columnTops, exposedBlocks, flora, ripeness);
+    }
+}
@@ -0,0 +1,309 @@
+package pepse.world.chunks;
+
+import pepse.world.Block;
+import pepse.world.Terrain;
+import pepse.world.trees.Flora;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ChunkGenerator computes {@link ChunkData} on a pool of background worker threads, or, when it is
+ * synchronous, right away on the thread requesting it, so which chunks are ready does not depend on timing.
+ * Requests, polling, discarding, saving and shutting down are meant to be called from the game-loop
+ * thread only; the generation itself touches nothing but the terrain noise, the flora planner and the
+ * chunk store.
+ * Chunks found in the store are read back instead of being generated, and newly generated chunks are
+ * saved to it. Chunks saved from the game-loop thread, e.g. with the ripeness of their fruit when they are
+ * unloaded, are encoded and written by the workers too; until a save is written, loading the chunk returns
+ * the saved data, so a chunk revisited right away is never read back stale.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public class ChunkGenerator {
+    /** The number of background worker threads. */
+    private static final int WORKER_THREADS = 2;
+
+    /** The name of the worker threads. */
+    private static final String WORKER_NAME = "chunk-generator";
+
+    /** How long to wait for a chunk being generated when shutting down, in milliseconds. */
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 1000;
+
+    private final Terrain terrain;
+    private final Flora flora;
+    private final ChunkStore store;
+    private final ExecutorService executor;
+    private final Map<Integer, Future<ChunkData>> pending;
+    private final Map<Integer, ChunkData> pendingSaves;
+    private final Object saveLock;
+    private boolean shutDown;
+
+    /**
+     * Constructs a ChunkGenerator that always generates the chunks.
+     *
+     * @param terrain The terrain to generate the columns from.
+     * @param flora   The flora to plan the trees with.
+     */
+    public ChunkGenerator(Terrain terrain, Flora flora) {
+        this(terrain, flora, null, false);
+    }
+
+    /**
+     * Constructs a ChunkGenerator.
+     *
+     * @param terrain     The terrain to generate the columns from.
+     * @param flora       The flora to plan the trees with.
+     * @param store       The store to read and save chunks, or null to always generate them.
+     * @param synchronous Whether to generate requested chunks right away on the calling thread, instead
+     *                    of in the background.
+     */
+    public ChunkGenerator(Terrain terrain, Flora flora, ChunkStore store, boolean synchronous) {
+        this.terrain = terrain;
+        this.flora = flora;
+        this.store = store;
+        this.pending = new HashMap<>();
+        this.pendingSaves = new ConcurrentHashMap<>();
+        this.saveLock = new Object();
+        this.executor = synchronous ? null : Executors.newFixedThreadPool(WORKER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, WORKER_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the data of a chunk on the calling thread, from the store if it was saved, or by generating and
+     * saving it.
+     *
+     * @param index The chunk index.
+     * @return The chunk data.
+     */
+    public ChunkData generate(int index) {
+        ChunkData stored = load(index);
+        if (stored != null) {
+            return stored;
+        }
+        ChunkData data = compute(index);
+        write(data);
+        return data;
+    }
+
+    /**
+     * Loads a chunk from its pending save, or from the store. A chunk that cannot be read is generated
+     * again.
+     *
+     * @param index The chunk index.
+     * @return The stored chunk data, or null if it is not in the store.
+     */
+    private ChunkData load(int index) {
+        if (store == null) {
+            return null;
+        }
+        ChunkData saved = pendingSaves.get(index);
+        if (saved != null) {
+            return saved;
+        }
+        try {
+            return store.load(index);
+        } catch (IOException | RuntimeException e) {
+            System.err.println(e);
+            return null;
+        }
+    }
+
+    /**
+     * Saves a chunk to the store, if there is one. The chunk is written in the background, unless the
+     * generator is synchronous; a later save of the same chunk replaces a pending one. Once the generator
+     * is shut down, saves are ignored.
+     *
+     * @param data The chunk data.
+     */
+    public void save(ChunkData data) {
+        if (store == null || shutDown) {
+            return;
+        }
+        if (executor == null) {
+            write(data);
+            return;
+        }
+        int index = data.getIndex();
+        pendingSaves.put(index, data);
+        executor.execute(() -> writePending(index));
+    }
+
+    /**
+     * Writes the pending save of a chunk, if it has not been written yet. Pending saves are written one at
+     * a time, so an older save of a chunk is never written over a newer one.
+     *
+     * @param index The chunk index.
+     */
+    private void writePending(int index) {
+        synchronized (saveLock) {
+            ChunkData data = pendingSaves.get(index);
+            if (data != null) {
+                write(data);
+                pendingSaves.remove(index, data);
+            }
+        }
+    }
+
+    /**
+     * Writes a chunk to the store, if there is one, on the calling thread.
+     *
+     * @param data The chunk data.
+     */
+    private void write(ChunkData data) {
+        if (store == null) {
+            return;
+        }
+        try {
+            store.save(data);
+        } catch (IOException e) {
+            System.err.println(e);
+        }
+    }
+
+    /**
+     * Computes the data of a chunk from the terrain noise and the flora planner.
+     *
+     * @param index The chunk index.
+     * @return The generated chunk data.
+     */
+    private ChunkData compute(int index) {
+        int start = Chunk.startOf(index);
+        int[] columnTops = new int[Chunk.COLUMNS];
+        int[] exposedBlocks = new int[Chunk.COLUMNS];
+        for (int column = 0; column < Chunk.COLUMNS; column++) {
+            columnTops[column] = terrain.columnTopAt(start + column * Block.SIZE);
+        }
+        int leftTop = terrain.columnTopAt(start - Block.SIZE);
+        int lastRightTop = terrain.columnTopAt(Chunk.startOf(index + 1));
+        for (int column = 0; column < Chunk.COLUMNS; column++) {
+            int rightTop = column + 1 < Chunk.COLUMNS ? columnTops[column + 1] : lastRightTop;
+            exposedBlocks[column] = Terrain.exposedBlocks(columnTops[column], leftTop, rightTop);
+            leftTop = columnTops[column];
+        }
+        return new ChunkData(index,
+                columnTops,
+                exposedBlocks,
+                flora.planInRange(start, Chunk.startOf(index + 1)));
+    }
+
+    /**
+     * Schedules the generation of a chunk in the background, unless it is already scheduled.
+     * A synchronous generator generates it right away.
+     *
+     * @param index The chunk index.
+     */
+    public void request(int index) {
+        if (pending.containsKey(index)) {
+            return;
+        }
+        if (executor == null) {
+            pending.put(index, CompletableFuture.completedFuture(generate(index)));
+        } else {
+            pending.put(index, executor.submit(() -> generate(index)));
+        }
+    }
+
+    /**
+     * Takes the data of a chunk if its background generation has finished.
+     *
+     * @param index The chunk index.
+     * @return The chunk data, or null if it is not ready (or was never requested).
+     */
+    public ChunkData poll(int index) {
+        Future<ChunkData> future = pending.get(index);
+        if (future == null || !future.isDone()) {
+            return null;
+        }
+        return take(index);
+    }
+
+    /**
+     * Takes the data of a chunk, waiting for its generation if needed.
+     * Used when a chunk is needed right away, e.g. under the avatar.
+     *
+     * @param index The chunk index.
+     * @return The chunk data, or null if the generation failed.
+     */
+    public ChunkData await(int index) {
+        request(index);
+        return take(index);
+    }
+
+    /**
+     * Removes a pending chunk and returns its data, waiting for it if needed.
+     *
+     * @param index The chunk index.
+     * @return The chunk data, or null if the generation failed.
+     */
+    private ChunkData take(int index) {
+        Future<ChunkData> future = pending.remove(index);
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            System.err.println(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    /**
+     * Cancels and forgets every pending chunk outside the given range of chunk indices.
+     *
+     * @param minIndex The first chunk index to keep.
+     * @param maxIndex The last chunk index to keep.
+     */
+    public void discardOutside(int minIndex, int maxIndex) {
+        Iterator<Map.Entry<Integer, Future<ChunkData>>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, Future<ChunkData>> entry = iterator.next();
+            if (entry.getKey() < minIndex || entry.getKey() > maxIndex) {
+                entry.getValue().cancel(false);
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Stops the background workers, writes the saves they did not get to and closes the store.
+     * Workers are not interrupted, since interrupting a write would close the store's file under it.
+     */
+    public void shutdown() {
+        shutDown = true;
+        for (Future<ChunkData> future : pending.values()) {
+            future.cancel(false);
+        }
+        pending.clear();
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (store != null) {
+            for (int index : pendingSaves.keySet()) {
+                writePending(index);
+            }
+            try {
+                store.close();
+            } catch (IOException e) {
+                System.err.println(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package pepse.world.chunks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * The ChunkManager keeps the chunks around a focus point loaded.
+ * Chunks within the load radius of the focus chunk are loaded, and chunks are unloaded only once
+ * they are further than the load radius plus the hysteresis, so walking back and forth over a chunk
+ * border does not load and unload the same chunk repeatedly.
+ * The data of new chunks is generated in the background by a {@link ChunkGenerator}, prefetching
+ * ahead of the direction of travel, and at most a fixed number of ready chunks are turned into game
+ * objects per frame.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public class ChunkManager {
+    /** Negative radius error message. */
+    private static final String RADIUS_ERROR = "radius, hysteresis and prefetch must not be negative";
+
+    /** Non-positive budget error message. */
+    private static final String BUDGET_ERROR = "chunksPerFrame must be positive";
+
+    /** The number of chunks on each side of the focus chunk that must be loaded immediately. */
+    private static final int URGENT_RADIUS = 1;
+
+    private final ChunkGenerator generator;
+    private final Function<ChunkData, Chunk> chunkBuilder;
+    private final Consumer<Chunk> chunkUnloader;
+    private final int loadRadius;
+    private final int hysteresis;
+    private final int prefetchDistance;
+    private final int chunksPerFrame;
+    private final Map<Integer, Chunk> loadedChunks;
+    private int focusChunk;
+    private boolean hasFocus;
+    private int direction;
+
+    /**
+     * Constructs a ChunkManager.
+     *
+     * @param generator        The generator computing the data of new chunks.
+     * @param chunkBuilder     Function that creates the game objects of a chunk from its data and adds
+     *                         them to the game.
+     * @param chunkUnloader    Consumer that removes the objects of the given chunk from the game.
+     * @param loadRadius       The number of chunks on each side of the focus chunk to keep loaded.
+     * @param hysteresis       The number of extra chunks beyond the load radius before a chunk is unloaded.
+     * @param prefetchDistance The number of chunks beyond the load radius to generate ahead of the
+     *                         direction of travel.
+     * @param chunksPerFrame   The maximal number of generated chunks to load in a single frame.
+     */
+    public ChunkManager(ChunkGenerator generator,
+                        Function<ChunkData, Chunk> chunkBuilder,
+                        Consumer<Chunk> chunkUnloader,
+                        int loadRadius,
+                        int hysteresis,
+                        int prefetchDistance,
+                        int chunksPerFrame) {
+        if (loadRadius < 0 || hysteresis < 0 || prefetchDistance < 0) {
+            throw new IllegalArgumentException(RADIUS_ERROR);
+        }
+        if (chunksPerFrame <= 0) {
+            throw new IllegalArgumentException(BUDGET_ERROR);
+        }
+        this.generator = generator;
+        this.chunkBuilder = chunkBuilder;
+        this.chunkUnloader = chunkUnloader;
+        this.loadRadius = loadRadius;
+        this.hysteresis = hysteresis;
+        this.prefetchDistance = prefetchDistance;
+        this.chunksPerFrame = chunksPerFrame;
+        this.loadedChunks = new HashMap<>();
+    }
+
+    /**
+     * Synchronously loads every chunk within the load radius of the given x-coordinate.
+     * Used when the world is first created, before there is anything to stand on.
+     *
+     * @param x The x-coordinate of the focus point (usually the avatar).
+     */
+    public void loadAround(float x) {
+        focusChunk = Chunk.indexAt(x);
+        hasFocus = true;
+        loadNow(focusChunk - loadRadius, focusChunk + loadRadius);
+    }
+
+    /**
+     * Loads and unloads chunks around the given x-coordinate. Called once per rendered frame.
+     *
+     * @param x The x-coordinate of the focus point (usually the avatar).
+     */
+    public void update(float x) {
+        int center = Chunk.indexAt(x);
+        if (!hasFocus || center != focusChunk) {
+            if (hasFocus) {
+                direction = Integer.signum(center - focusChunk);
+            }
+            focusChunk = center;
+            hasFocus = true;
+            unloadFarChunks(center);
+            int keepRadius = loadRadius + hysteresis + prefetchDistance;
+            generator.discardOutside(center - keepRadius, center + keepRadius);
+        }
+
+        requestChunks(center);
+        loadNow(center - URGENT_RADIUS, center + URGENT_RADIUS);
+        loadReadyChunks(center);
+    }
+
+    /**
+     * Requests background generation of the missing chunks in the load radius, and of the chunks
+     * ahead of the direction of travel.
+     *
+     * @param center The index of the focus chunk.
+     */
+    private void requestChunks(int center) {
+        for (int offset = 0; offset <= loadRadius; offset++) {
+            requestIfMissing(center + offset);
+            requestIfMissing(center - offset);
+        }
+        if (direction != 0) {
+            for (int offset = 1; offset <= prefetchDistance; offset++) {
+                requestIfMissing(center + direction * (loadRadius + offset));
+            }
+        }
+    }
+
+    /**
+     * Requests background generation of a chunk if it is not loaded.
+     *
+     * @param index The chunk index.
+     */
+    private void requestIfMissing(int index) {
+        if (!loadedChunks.containsKey(index)) {
+            generator.request(index);
+        }
+    }
+
+    /**
+     * Loads the generated chunks in the load radius, nearest first, up to the per-frame budget.
+     *
+     * @param center The index of the focus chunk.
+     */
+    private void loadReadyChunks(int center) {
+        int loaded = 0;
+        for (int offset = 0; offset <= loadRadius && loaded < chunksPerFrame; offset++) {
+            if (loadIfReady(center + offset)) {
+                loaded++;
+            }
+            if (offset != 0 && loaded < chunksPerFrame && loadIfReady(center - offset)) {
+                loaded++;
+            }
+        }
+    }
+
+    /**
+     * Loads a chunk if it is missing and its data has been generated.
+     *
+     * @param index The chunk index.
+     * @return True if the chunk was loaded, false otherwise.
+     */
+    private boolean loadIfReady(int index) {
+        if (loadedChunks.containsKey(index)) {
+            return false;
+        }
+        ChunkData data = generator.poll(index);
+        if (data == null) {
+            return false;
+        }
+        loadedChunks.put(index, chunkBuilder.apply(data));
+        return true;
+    }
+
+    /**
+     * Loads every missing chunk in the given range, waiting for their generation if needed.
+     *
+     * @param minIndex The first chunk index to load.
+     * @param maxIndex The last chunk index to load.
+     */
+    private void loadNow(int minIndex, int maxIndex) {
+        for (int index = minIndex; index <= maxIndex; index++) {
+            if (!loadedChunks.containsKey(index)) {
+                ChunkData data = generator.await(index);
+                if (data != null) {
+                    loadedChunks.put(index, chunkBuilder.apply(data));
+                }
+            }
+        }
+    }
+
+    /**
+     * Unloads every chunk that is further than the load radius plus the hysteresis from the center.
+     *
+     * @param center The index of the focus chunk.
+     */
+    private void unloadFarChunks(int center) {
+        int keepRadius = loadRadius + hysteresis;
+        List<Integer> farChunks = new ArrayList<>();
+        for (int index : loadedChunks.keySet()) {
+            if (Math.abs(index - center) > keepRadius) {
+                farChunks.add(index);
+            }
+        }
+        for (int index : farChunks) {
+            chunkUnloader.accept(loadedChunks.remove(index));
+        }
+    }
+
+    /**
+     * Performs an action on every loaded chunk.
+     *
+     * @param action The action.
+     */
+    public void forEachLoaded(Consumer<Chunk> action) {
+        loadedChunks.values().forEach(action);
+    }
+
+    /**
+     * Gets the number of loaded chunks.
+     *
+     * @return The number of loaded chunks.
+     */
+    public int loadedCount() {
+        return loadedChunks.size();
+    }
+}
@@ -0,0 +1,188 @@
+package pepse.world.chunks;
+
+import pepse.world.Block;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The ChunkStore keeps generated chunks on disk, so revisited chunks are read back instead of being
+ * generated again, also after a restart.
+ * Chunks are grouped into {@link RegionFile}s of consecutive chunk indices inside a directory, so finding a
+ * chunk takes a single header lookup in its region, and reading it a single slice of the mapped region.
+ * A bounded number of region files is kept open, the least recently used one being closed first.
+ * The directory also holds a world file with the seed and the terrain parameters of the world the chunks
+ * were generated for, and a store is only opened for the same world, so chunks of another world are never
+ * read back into this one.
+ * All methods may be called from any thread.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public class ChunkStore implements Closeable {
+    /**
+     * The maximal number of region files kept open.
+     */
+    private static final int MAX_OPEN_REGIONS = 16;
+
+    /**
+     * The prefix of the region file names, followed by the region index.
+     */
+    private static final String REGION_PREFIX = "region.";
+
+    /**
+     * The extension of the region file names.
+     */
+    private static final String REGION_EXTENSION = ".pcr";
+
+    /**
+     * The name of the file describing the world the chunks belong to.
+     */
+    private static final String WORLD_FILE = "world.pcw";
+
+    /**
+     * The magic number the world file starts with.
+     */
+    private static final int WORLD_MAGIC = 0x50574C44;
+
+    /**
+     * The version of the world file format.
+     */
+    private static final int WORLD_VERSION = 1;
+
+    /**
+     * The size of the world file: the magic number, the version, the seed, the base height of the terrain,
+     * the number of columns of a chunk and the size of a block.
+     */
+    private static final int WORLD_BYTES = 6 * Integer.BYTES;
+
+    /**
+     * World mismatch error message.
+     */
+    private static final String WORLD_ERROR = "chunk store belongs to another world: ";
+
+    private final Path directory;
+    private final LinkedHashMap<Integer, RegionFile> regions;
+
+    /**
+     * Opens the chunk store of a world, creating its directory and world file if needed.
+     *
+     * @param directory  The directory of the region files.
+     * @param seed       The seed of the world.
+     * @param baseHeight The height the terrain of the world is generated around.
+     * @throws IOException If the directory cannot be created, or holds the chunks of another world.
+     */
+    public ChunkStore(Path directory, int seed, int baseHeight) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.regions = new LinkedHashMap<>(MAX_OPEN_REGIONS, 0.75f, true);
+        checkWorld(seed, baseHeight);
+    }
+
+    /**
+     * Checks that the store holds the chunks of the given world. A store without a world file is claimed
+     * for the world, unless it already holds region files, whose world is unknown.
+     *
+     * @param seed       The seed of the world.
+     * @param baseHeight The height the terrain of the world is generated around.
+     * @throws IOException If the world file cannot be read or written, or describes another world.
+     */
+    private void checkWorld(int seed, int baseHeight) throws IOException {
+        byte[] world = ByteBuffer.allocate(WORLD_BYTES)
+                .putInt(WORLD_MAGIC)
+                .putInt(WORLD_VERSION)
+                .putInt(seed)
+                .putInt(baseHeight)
+                .putInt(Chunk.COLUMNS)
+                .putInt(Block.SIZE)
+                .array();
+        Path worldFile = directory.resolve(WORLD_FILE);
+        if (Files.exists(worldFile)) {
+            if (!Arrays.equals(Files.readAllBytes(worldFile), world)) {
+                throw new IOException(WORLD_ERROR + directory);
+            }
+            return;
+        }
+        try (DirectoryStream<Path> regionFiles =
+                     Files.newDirectoryStream(directory, REGION_PREFIX + "*" + REGION_EXTENSION)) {
+            if (regionFiles.iterator().hasNext()) {
+                throw new IOException(WORLD_ERROR + directory);
+            }
+        }
+        Files.write(worldFile, world);
+    }
+
+    /**
+     * Gets the region file holding a chunk, opening it if needed.
+     *
+     * @param index The chunk index.
+     * @param create Whether to create the region file if it does not exist.
+     * @return The region file, or null if it does not exist and was not created.
+     * @throws IOException If the region file cannot be opened.
+     */
+    private RegionFile regionOf(int index, boolean create) throws IOException {
+        int region = RegionFile.regionOf(index);
+        RegionFile file = regions.get(region);
+        if (file != null) {
+            return file;
+        }
+        Path path = directory.resolve(REGION_PREFIX + region + REGION_EXTENSION);
+        if (!create && !Files.exists(path)) {
+            return null;
+        }
+        if (regions.size() == MAX_OPEN_REGIONS) {
+            Iterator<RegionFile> eldest = regions.values().iterator();
+            eldest.next().close();
+            eldest.remove();
+        }
+        file = new RegionFile(path);
+        regions.put(region, file);
+        return file;
+    }
+
+    /**
+     * Loads a chunk.
+     *
+     * @param index The chunk index.
+     * @return The chunk data, or null if the chunk was never saved.
+     * @throws IOException If the region file cannot be read.
+     * @throws IllegalArgumentException If the stored chunk has an incompatible format or is corrupt.
+     */
+    public synchronized ChunkData load(int index) throws IOException {
+        RegionFile region = regionOf(index, false);
+        if (region == null) {
+            return null;
+        }
+        ByteBuffer encoded = region.read(RegionFile.slotOf(index));
+        return encoded == null ? null : ChunkCodec.decode(encoded, index);
+    }
+
+    /**
+     * Saves a chunk by appending it to its region file.
+     *
+     * @param data The chunk data.
+     * @throws IOException If the region file cannot be written.
+     */
+    public synchronized void save(ChunkData data) throws IOException {
+        regionOf(data.getIndex(), true).write(RegionFile.slotOf(data.getIndex()), ChunkCodec.encode(data));
+    }
+
+    /**
+     * Closes all the open region files.
+     *
+     * @throws IOException If a region file cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        for (Map.Entry<Integer, RegionFile> entry : regions.entrySet()) {
+            entry.getValue().close();
+        }
+        regions.clear();
+    }
+}
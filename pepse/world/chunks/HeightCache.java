@@ -0,0 +1,123 @@
+package pepse.world.chunks;
+
+import pepse.world.Block;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * The HeightCache keeps the ground heights of the block-aligned columns of recently used chunks,
+ * one primitive float array per chunk, evicting the least recently used chunk once it is full.
+ * It is safe to use from several threads at once.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public class HeightCache {
+    /** Non-positive capacity error message. */
+    private static final String CAPACITY_ERROR = "capacity must be positive";
+
+    /** Non-aligned x-coordinate error message. */
+    private static final String ALIGNMENT_ERROR = "x must be a multiple of the block size";
+
+    /** The load factor of the underlying map. */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final IntFunction<float[]> chunkHeights;
+    private final Map<Integer, float[]> chunks;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    /**
+     * Constructs a HeightCache.
+     *
+     * @param capacity     The maximal number of chunks to keep.
+     * @param chunkHeights Function computing the heights of all the columns of the chunk with the given
+     *                     index, in order.
+     */
+    public HeightCache(int capacity, IntFunction<float[]> chunkHeights) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(CAPACITY_ERROR);
+        }
+        this.chunkHeights = chunkHeights;
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.chunks = new LinkedHashMap<>(capacity, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, float[]> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Checks whether the height of the given x-coordinate can be served by the cache.
+     *
+     * @param x The x-coordinate.
+     * @return True if x is the x-coordinate of a column, false otherwise.
+     */
+    public static boolean isCacheable(float x) {
+        return x % Block.SIZE == 0 && Math.abs(x) < Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns the ground height of the column at the given x-coordinate, computing and caching the
+     * heights of its whole chunk on a miss.
+     *
+     * @param x The x-coordinate of the column, a multiple of the block size.
+     * @return The ground height of the column.
+     */
+    public float heightAt(int x) {
+        if (x % Block.SIZE != 0) {
+            throw new IllegalArgumentException(ALIGNMENT_ERROR);
+        }
+        int index = Math.floorDiv(x, Chunk.WIDTH);
+        int column = (x - Chunk.startOf(index)) / Block.SIZE;
+
+        float[] heights;
+        synchronized (chunks) {
+            heights = chunks.get(index);
+        }
+        if (heights != null) {
+            hits.increment();
+            return heights[column];
+        }
+
+        misses.increment();
+        heights = chunkHeights.apply(index);
+        synchronized (chunks) {
+            chunks.put(index, heights);
+        }
+        return heights[column];
+    }
+
+    /**
+     * Gets the number of lookups served from the cache.
+     *
+     * @return The number of cache hits.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that had to compute the heights of a chunk.
+     *
+     * @return The number of cache misses.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of cached chunks.
+     *
+     * @return The number of cached chunks.
+     */
+    public int size() {
+        synchronized (chunks) {
+            return chunks.size();
+        }
+    }
+}
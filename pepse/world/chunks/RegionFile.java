@@ -0,0 +1,284 @@
+package pepse.world.chunks;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A RegionFile holds the encoded chunks (see {@link ChunkCodec}) of REGION_CHUNKS consecutive chunk indices.
+ * It starts with a header indexing the offset and length of every chunk slot, so a chunk is found with a
+ * single lookup, followed by the chunks themselves. Saving appends the chunk, forces it to the disk and
+ * only then points its header entry at it, so a crash never leaves an entry pointing at a partly written
+ * chunk. Entries pointing outside of the file, e.g. of a truncated file, are read as empty slots, so their
+ * chunks are generated again. The bytes of replaced chunks are reclaimed by compaction, which rewrites the
+ * live chunks into a new file.
+ * Reads slice a memory-mapped view of the file. A RegionFile is not thread-safe.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public class RegionFile implements Closeable {
+    /**
+     * The number of consecutive chunks held by a region file.
+     */
+    public static final int REGION_CHUNKS = 256;
+
+    /**
+     * The magic number every region file starts with.
+     */
+    private static final int MAGIC = 0x50524547;
+
+    /**
+     * The version of the region file format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The size of a header entry: the offset and the length of a chunk.
+     */
+    private static final int ENTRY_BYTES = 2 * Integer.BYTES;
+
+    /**
+     * The size of the header: the magic number, the version and the entries.
+     */
+    private static final int HEADER_BYTES = 2 * Integer.BYTES + REGION_CHUNKS * ENTRY_BYTES;
+
+    /**
+     * The share of wasted bytes above which saving compacts the file.
+     */
+    private static final double COMPACT_WASTE_RATIO = 0.5;
+
+    /**
+     * The number of wasted bytes below which the file is never compacted.
+     */
+    private static final long COMPACT_MIN_WASTE = 64 * 1024;
+
+    /**
+     * The suffix of the temporary file written by compaction.
+     */
+    private static final String COMPACT_SUFFIX = ".compact";
+
+    /**
+     * Format error message.
+     */
+    private static final String FORMAT_ERROR = "not a region file of version " + VERSION + ": ";
+
+    /**
+     * Size error message.
+     */
+    private static final String SIZE_ERROR = "region file is too large to map: ";
+
+    private final Path path;
+    private final int[] offsets;
+    private final int[] lengths;
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private int size;
+    private long liveBytes;
+
+    /**
+     * Opens a region file, creating it with an empty header if needed.
+     *
+     * @param path The path of the file.
+     * @throws IOException If the file cannot be opened or is not a region file.
+     */
+    public RegionFile(Path path) throws IOException {
+        this.path = path;
+        this.offsets = new int[REGION_CHUNKS];
+        this.lengths = new int[REGION_CHUNKS];
+        open();
+    }
+
+    /**
+     * Opens the file and reads its header, writing an empty header into a new file.
+     *
+     * @throws IOException If the file cannot be opened or is not a region file.
+     */
+    private void open() throws IOException {
+        channel = FileChannel.open(path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).rewind();
+            writeFully(header, 0);
+        }
+        if (channel.size() > Integer.MAX_VALUE) {
+            throw new IOException(SIZE_ERROR + path);
+        }
+        size = (int) channel.size();
+        map();
+        if (size < HEADER_BYTES || mapped.getInt(0) != MAGIC || mapped.getInt(Integer.BYTES) != VERSION) {
+            channel.close();
+            throw new IOException(FORMAT_ERROR + path);
+        }
+        liveBytes = HEADER_BYTES;
+        for (int slot = 0; slot < REGION_CHUNKS; slot++) {
+            int offset = mapped.getInt(entryPosition(slot));
+            int length = mapped.getInt(entryPosition(slot) + Integer.BYTES);
+            boolean valid = length > 0 && offset >= HEADER_BYTES && (long) offset + length <= size;
+            offsets[slot] = valid ? offset : 0;
+            lengths[slot] = valid ? length : 0;
+            liveBytes += lengths[slot];
+        }
+    }
+
+    /**
+     * Returns the position of the header entry of a slot.
+     *
+     * @param slot The slot.
+     * @return The position of the entry in the file.
+     */
+    private static int entryPosition(int slot) {
+        return 2 * Integer.BYTES + slot * ENTRY_BYTES;
+    }
+
+    /**
+     * Returns the slot of a chunk in its region file.
+     *
+     * @param chunkIndex The chunk index.
+     * @return The slot, between 0 and REGION_CHUNKS - 1.
+     */
+    public static int slotOf(int chunkIndex) {
+        return Math.floorMod(chunkIndex, REGION_CHUNKS);
+    }
+
+    /**
+     * Returns the index of the region file holding a chunk.
+     *
+     * @param chunkIndex The chunk index.
+     * @return The region index.
+     */
+    public static int regionOf(int chunkIndex) {
+        return Math.floorDiv(chunkIndex, REGION_CHUNKS);
+    }
+
+    /**
+     * Maps the whole file into memory.
+     *
+     * @throws IOException If the file cannot be mapped.
+     */
+    private void map() throws IOException {
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    /**
+     * Reads a chunk.
+     *
+     * @param slot The slot of the chunk.
+     * @return A read-only view of the encoded chunk, or null if the slot is empty.
+     * @throws IOException If the file cannot be mapped.
+     */
+    public ByteBuffer read(int slot) throws IOException {
+        if (lengths[slot] == 0) {
+            return null;
+        }
+        int end = offsets[slot] + lengths[slot];
+        if (end > mapped.capacity()) {
+            map();
+        }
+        ByteBuffer chunk = mapped.duplicate();
+        chunk.limit(end).position(offsets[slot]);
+        return chunk.slice();
+    }
+
+    /**
+     * Writes a chunk, replacing the one in its slot, and compacts the file if too much of it is wasted.
+     *
+     * @param slot    The slot of the chunk.
+     * @param encoded The encoded chunk, from its position to its limit.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(int slot, ByteBuffer encoded) throws IOException {
+        write(slot, encoded, true);
+    }
+
+    /**
+     * Writes a chunk, replacing the one in its slot, and compacts the file if too much of it is wasted.
+     *
+     * @param slot    The slot of the chunk.
+     * @param encoded The encoded chunk, from its position to its limit.
+     * @param durable Whether to force the chunk to the disk before its header entry is written. Only a
+     *                file that is not in use yet, and is forced as a whole once written, may skip it.
+     * @throws IOException If the file cannot be written.
+     */
+    private void write(int slot, ByteBuffer encoded, boolean durable) throws IOException {
+        int length = encoded.remaining();
+        if ((long) size + length > Integer.MAX_VALUE) {
+            throw new IOException(SIZE_ERROR + path);
+        }
+        int offset = size;
+        writeFully(encoded, offset);
+        size += length;
+        if (durable) {
+            channel.force(false);
+        }
+
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_BYTES);
+        entry.putInt(offset).putInt(length).rewind();
+        writeFully(entry, entryPosition(slot));
+        liveBytes += length - lengths[slot];
+        offsets[slot] = offset;
+        lengths[slot] = length;
+
+        long waste = size - liveBytes;
+        if (waste >= COMPACT_MIN_WASTE && waste > size * COMPACT_WASTE_RATIO) {
+            compact();
+        }
+    }
+
+    /**
+     * Rewrites the live chunks into a new file that replaces this one, dropping the bytes of replaced chunks.
+     * If the new file cannot replace this one, this file is reopened as it was.
+     *
+     * @throws IOException If the new file cannot be written or moved into place.
+     */
+    private void compact() throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + COMPACT_SUFFIX);
+        Files.deleteIfExists(compacted);
+        try (RegionFile target = new RegionFile(compacted)) {
+            for (int slot = 0; slot < REGION_CHUNKS; slot++) {
+                ByteBuffer chunk = read(slot);
+                if (chunk != null) {
+                    target.write(slot, chunk, false);
+                }
+            }
+            target.channel.force(true);
+        }
+        channel.close();
+        try {
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            open();
+        }
+    }
+
+    /**
+     * Writes a whole buffer at a position in the file.
+     *
+     * @param buffer   The buffer.
+     * @param position The position in the file.
+     * @throws IOException If the file cannot be written.
+     */
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
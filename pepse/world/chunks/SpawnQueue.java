@@ -0,0 +1,241 @@
+package pepse.world.chunks;
+
+import danogl.GameObject;
+import pepse.world.Block;
+import pepse.world.WorldObjects;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.function.Consumer;
+
+/**
+ * The SpawnQueue sits in front of the game's {@link WorldObjects} and spreads insertions and
+ * removals of world objects over several frames. Every frame it performs at most a fixed number of
+ * operations and stops once its time budget, if it has one, is spent, inserting the objects closest to
+ * the focus point first. Objects near the focus point are always inserted right away, so the ground
+ * under the avatar never goes missing. Every object is handed to a callback once it is in the game, and
+ * to another once it is out of the game or its insertion was cancelled, which may reuse it.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public class SpawnQueue {
+    /** Non-positive budget error message. */
+    private static final String BUDGET_ERROR = "operations must be positive and time budget must not be negative";
+
+    /** Nanoseconds in a microsecond. */
+    private static final long NANOS_PER_MICRO = 1000;
+
+    /** The distance the focus point has to move before the pending insertions are sorted again. */
+    private static final float RESORT_DISTANCE = Block.SIZE;
+
+    private final WorldObjects worldObjects;
+    private final int operationsPerFrame;
+    private final long budgetNanos;
+    private final float immediateRadius;
+    private final List<Spawn> spawns;
+    private final Map<GameObject, Spawn> pendingSpawns;
+    private final Queue<Spawn> despawns;
+    private final Consumer<GameObject> onAdded;
+    private final Consumer<GameObject> onRemoved;
+    private float sortedFocus;
+    private boolean sorted;
+
+    /**
+     * A pending insertion or removal of a game object.
+     */
+    private static class Spawn {
+        private final GameObject object;
+        private final int layer;
+        private boolean cancelled;
+
+        /**
+         * Constructs a pending operation.
+         *
+         * @param object The game object.
+         * @param layer  The layer of the game object.
+         */
+        private Spawn(GameObject object, int layer) {
+            this.object = object;
+            this.layer = layer;
+        }
+    }
+
+    /**
+     * Constructs a SpawnQueue.
+     *
+     * @param worldObjects       Where the objects are added to and removed from.
+     * @param operationsPerFrame The maximal number of insertions and removals in a single frame.
+     * @param budgetMicros       The time budget of a single frame, in microseconds, or 0 to limit the
+     *                           number of operations alone.
+     * @param immediateRadius    Objects this close to the focus point are inserted regardless of
+     *                           the budget.
+     */
+    public SpawnQueue(WorldObjects worldObjects,
+                      int operationsPerFrame,
+                      long budgetMicros,
+                      float immediateRadius) {
+        this(worldObjects, operationsPerFrame, budgetMicros, immediateRadius, object -> { }, object -> { });
+    }
+
+    /**
+     * Constructs a SpawnQueue that reports the objects it adds and the objects it is done with.
+     *
+     * @param worldObjects       Where the objects are added to and removed from.
+     * @param operationsPerFrame The maximal number of insertions and removals in a single frame.
+     * @param budgetMicros       The time budget of a single frame, in microseconds, or 0 to limit the
+     *                           number of operations alone.
+     * @param immediateRadius    Objects this close to the focus point are inserted regardless of
+     *                           the budget.
+     * @param onAdded            Called with every spawned object once it is in the game.
+     * @param onRemoved          Called with every despawned object once it is out of the game, or its
+     *                           insertion was cancelled.
+     */
+    public SpawnQueue(WorldObjects worldObjects,
+                      int operationsPerFrame,
+                      long budgetMicros,
+                      float immediateRadius,
+                      Consumer<GameObject> onAdded,
+                      Consumer<GameObject> onRemoved) {
+        if (operationsPerFrame <= 0 || budgetMicros < 0) {
+            throw new IllegalArgumentException(BUDGET_ERROR);
+        }
+        this.worldObjects = worldObjects;
+        this.operationsPerFrame = operationsPerFrame;
+        this.budgetNanos = budgetMicros * NANOS_PER_MICRO;
+        this.immediateRadius = immediateRadius;
+        this.spawns = new ArrayList<>();
+        this.pendingSpawns = new HashMap<>();
+        this.despawns = new ArrayDeque<>();
+        this.onAdded = onAdded;
+        this.onRemoved = onRemoved;
+    }
+
+    /**
+     * Queues a game object to be added to the game.
+     *
+     * @param object The game object.
+     * @param layer  The layer to add the object to.
+     */
+    public void spawn(GameObject object, int layer) {
+        Spawn spawn = new Spawn(object, layer);
+        spawns.add(spawn);
+        pendingSpawns.put(object, spawn);
+        sorted = false;
+    }
+
+    /**
+     * Queues a game object to be removed from the game. If the object was never added, its pending
+     * insertion is simply cancelled.
+     *
+     * @param object The game object.
+     * @param layer  The layer the object lives in.
+     */
+    public void despawn(GameObject object, int layer) {
+        Spawn pending = pendingSpawns.remove(object);
+        if (pending != null) {
+            pending.cancelled = true;
+            onRemoved.accept(object);
+            return;
+        }
+        despawns.add(new Spawn(object, layer));
+    }
+
+    /**
+     * Performs the pending operations of this frame: insertions nearest to the focus point first,
+     * then removals, until the operation count or time budget is spent.
+     *
+     * @param focusX The x-coordinate of the focus point (usually the avatar).
+     * @return The number of objects added and removed.
+     */
+    public int drain(float focusX) {
+        long start = System.nanoTime();
+        int operations = 0;
+        sortSpawns(focusX);
+
+        while (!spawns.isEmpty()) {
+            Spawn spawn = spawns.get(spawns.size() - 1);
+            if (spawn.cancelled) {
+                spawns.remove(spawns.size() - 1);
+                continue;
+            }
+            boolean immediate = Math.abs(spawn.object.getCenter().x() - focusX) <= immediateRadius;
+            if (!immediate && isOverBudget(operations, start)) {
+                return operations;
+            }
+            spawns.remove(spawns.size() - 1);
+            pendingSpawns.remove(spawn.object);
+            worldObjects.addObject(spawn.object, spawn.layer);
+            onAdded.accept(spawn.object);
+            operations++;
+        }
+
+        while (!despawns.isEmpty() && !isOverBudget(operations, start)) {
+            Spawn despawn = despawns.poll();
+            worldObjects.removeObject(despawn.object, despawn.layer);
+            onRemoved.accept(despawn.object);
+            operations++;
+        }
+        return operations;
+    }
+
+    /**
+     * Performs every pending operation right away.
+     */
+    public void flush() {
+        for (Spawn spawn : spawns) {
+            if (!spawn.cancelled) {
+                worldObjects.addObject(spawn.object, spawn.layer);
+                onAdded.accept(spawn.object);
+            }
+        }
+        spawns.clear();
+        pendingSpawns.clear();
+        while (!despawns.isEmpty()) {
+            Spawn despawn = despawns.poll();
+            worldObjects.removeObject(despawn.object, despawn.layer);
+            onRemoved.accept(despawn.object);
+        }
+    }
+
+    /**
+     * Gets the number of pending operations.
+     *
+     * @return The number of objects waiting to be added or removed.
+     */
+    public int pendingCount() {
+        return pendingSpawns.size() + despawns.size();
+    }
+
+    /**
+     * Sorts the pending insertions so the one nearest to the focus point is last.
+     * Skipped when nothing was queued and the focus barely moved since the last sort.
+     *
+     * @param focusX The x-coordinate of the focus point.
+     */
+    private void sortSpawns(float focusX) {
+        if (sorted && Math.abs(focusX - sortedFocus) < RESORT_DISTANCE) {
+            return;
+        }
+        spawns.sort(Comparator.comparingDouble(
+                (Spawn spawn) -> Math.abs(spawn.object.getCenter().x() - focusX)).reversed());
+        sortedFocus = focusX;
+        sorted = true;
+    }
+
+    /**
+     * Checks whether the budget of the current frame is spent.
+     *
+     * @param operations The number of operations performed this frame.
+     * @param start      The time the frame's draining started, in nanoseconds.
+     * @return True if no more operations should be performed this frame.
+     */
+    private boolean isOverBudget(int operations, long start) {
+        return operations >= operationsPerFrame ||
+                (budgetNanos > 0 && System.nanoTime() - start >= budgetNanos);
+    }
+}
@@ -0,0 +1,84 @@
+package pepse.world.chunks;
+
+import danogl.gui.rendering.ImageRenderable;
+
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The TerrainImageCache rasterizes the terrain image of each loaded chunk, so the ground of a chunk is
+ * drawn as a single image instead of one rectangle per block. The images are held by the chunks' objects;
+ * the cache only accounts for their total size, which is bounded: a chunk whose image does not fit is not
+ * rasterized, and its blocks are drawn one by one. An image is evicted when its chunk is unloaded.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public class TerrainImageCache {
+    /** Non-positive budget error message. */
+    private static final String BUDGET_ERROR = "maximal size must be positive";
+
+    /** Non-positive dimensions error message. */
+    private static final String DIMENSIONS_ERROR = "image dimensions must be positive";
+
+    /** The number of bytes of a single pixel. */
+    private static final int BYTES_PER_PIXEL = Integer.BYTES;
+
+    private final long maxBytes;
+    private final Map<Integer, Long> imageBytes;
+    private long bytes;
+
+    /**
+     * Constructs an empty TerrainImageCache.
+     *
+     * @param maxBytes The maximal total size of the cached images, in bytes.
+     */
+    public TerrainImageCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException(BUDGET_ERROR);
+        }
+        this.maxBytes = maxBytes;
+        this.imageBytes = new HashMap<>();
+    }
+
+    /**
+     * Rasterizes the terrain image of a chunk, replacing its previous image, if there is room for it.
+     *
+     * @param index   The index of the chunk.
+     * @param width   The width of the image, in pixels.
+     * @param height  The height of the image, in pixels.
+     * @param painter Paints the image into an array of ARGB pixels, row by row, which starts transparent.
+     * @return The image, or null if it does not fit in the cache.
+     */
+    public ImageRenderable rasterize(int index, int width, int height, Consumer<int[]> painter) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException(DIMENSIONS_ERROR);
+        }
+        remove(index);
+        long size = (long) width * height * BYTES_PER_PIXEL;
+        if (bytes + size > maxBytes) {
+            return null;
+        }
+        int[] pixels = new int[width * height];
+        painter.accept(pixels);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, width, height, pixels, 0, width);
+        ImageRenderable renderable = new ImageRenderable(image);
+        imageBytes.put(index, size);
+        bytes += size;
+        return renderable;
+    }
+
+    /**
+     * Evicts the image of a chunk, e.g. when the chunk is unloaded.
+     *
+     * @param index The index of the chunk.
+     */
+    public void remove(int index) {
+        Long size = imageBytes.remove(index);
+        if (size != null) {
+            bytes -= size;
+        }
+    }
+}
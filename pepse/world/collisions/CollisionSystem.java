@@ -0,0 +1,274 @@
+package pepse.world.collisions;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+import pepse.world.ObjectTypes;
+import pepse.world.TypedObject;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The CollisionSystem collides the few moving objects of the world (the avatar) with its static objects
+ * (blocks, trunks and fruit), which are indexed in a {@link StaticGrid}. Static objects are never tested
+ * against each other, so the cost of a frame grows with the number of moving objects rather than with the
+ * number of blocks.
+ * Moving objects are pushed out of solid objects, stopping their velocity along the axis they are pushed
+ * on, and both objects of a pair are told when they start and stop touching. Overlaps are resolved
+ * vertically first, against the solids a moving object was above or below before it moved, so walking
+ * over a row of flush blocks never catches on the seams between them; the remaining overlaps are resolved
+ * horizontally against the solids it was beside, or along the axis of least penetration. No engine
+ * collision details are computed, so the collision passed to onCollisionEnter is null.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public class CollisionSystem {
+    /**
+     * How far a moving object may have sunk into a solid object, after being pushed out of it, and still
+     * count as having been outside of it.
+     */
+    private static final float SEPARATION_TOLERANCE = 0.01f;
+
+    private final StaticGrid grid;
+    private final List<Dynamic> dynamics;
+    private final Set<GameObject> candidates;
+    private final List<GameObject> solids;
+
+    /**
+     * A moving object, the static objects it touched in the last tick and where it was left after them.
+     */
+    private static class Dynamic {
+        private final GameObject object;
+        private Set<GameObject> contacts;
+        private Set<GameObject> nextContacts;
+        private Vector2 resolvedTopLeft;
+
+        /**
+         * Constructs a Dynamic with no contacts.
+         *
+         * @param object The moving object.
+         */
+        private Dynamic(GameObject object) {
+            this.object = object;
+            this.contacts = new HashSet<>();
+            this.nextContacts = new HashSet<>();
+        }
+    }
+
+    /**
+     * Constructs an empty CollisionSystem.
+     */
+    public CollisionSystem() {
+        this.grid = new StaticGrid();
+        this.dynamics = new ArrayList<>();
+        this.candidates = new LinkedHashSet<>();
+        this.solids = new ArrayList<>();
+    }
+
+    /**
+     * Adds a static object, if its type collides with anything.
+     *
+     * @param object The static object.
+     */
+    public void addStatic(GameObject object) {
+        if (object instanceof TypedObject && ObjectTypes.collidesWithAny(((TypedObject) object).getObjectType())) {
+            grid.add(object);
+        }
+    }
+
+    /**
+     * Removes a static object, if it was added, ending its contacts without notifying anyone.
+     *
+     * @param object The static object.
+     */
+    public void removeStatic(GameObject object) {
+        grid.remove(object);
+        for (Dynamic dynamic : dynamics) {
+            dynamic.contacts.remove(object);
+        }
+    }
+
+    /**
+     * Adds a moving object.
+     *
+     * @param object The moving object.
+     */
+    public void addDynamic(GameObject object) {
+        dynamics.add(new Dynamic(object));
+    }
+
+    /**
+     * Collides every moving object with the static objects around it. Called once per tick, after the
+     * objects moved.
+     */
+    public void update() {
+        for (Dynamic dynamic : dynamics) {
+            collide(dynamic);
+        }
+    }
+
+    /**
+     * Collides a moving object with the static objects around it.
+     *
+     * @param dynamic The moving object.
+     */
+    private void collide(Dynamic dynamic) {
+        GameObject object = dynamic.object;
+        candidates.clear();
+        grid.query(object.getTopLeftCorner(), object.getDimensions(), candidates);
+        for (GameObject other : candidates) {
+            if (!object.shouldCollideWith(other) || !other.shouldCollideWith(object) || !overlap(object, other)) {
+                continue;
+            }
+            dynamic.nextContacts.add(other);
+            if (!dynamic.contacts.contains(other)) {
+                object.onCollisionEnter(other, null);
+                other.onCollisionEnter(object, null);
+            }
+            if (ObjectTypes.isSolid(((TypedObject) other).getObjectType())) {
+                solids.add(other);
+            }
+        }
+        resolve(dynamic);
+        for (GameObject other : dynamic.contacts) {
+            if (!dynamic.nextContacts.contains(other)) {
+                object.onCollisionExit(other);
+                other.onCollisionExit(object);
+            }
+        }
+        Set<GameObject> contacts = dynamic.contacts;
+        dynamic.contacts = dynamic.nextContacts;
+        dynamic.nextContacts = contacts;
+        contacts.clear();
+    }
+
+    /**
+     * Checks whether the bounds of two objects overlap.
+     *
+     * @param first  The first object.
+     * @param second The second object.
+     * @return True if the bounds overlap, false otherwise.
+     */
+    private static boolean overlap(GameObject first, GameObject second) {
+        Vector2 firstTopLeft = first.getTopLeftCorner();
+        Vector2 firstDimensions = first.getDimensions();
+        Vector2 secondTopLeft = second.getTopLeftCorner();
+        Vector2 secondDimensions = second.getDimensions();
+        return firstTopLeft.x() < secondTopLeft.x() + secondDimensions.x() &&
+                secondTopLeft.x() < firstTopLeft.x() + firstDimensions.x() &&
+                firstTopLeft.y() < secondTopLeft.y() + secondDimensions.y() &&
+                secondTopLeft.y() < firstTopLeft.y() + firstDimensions.y();
+    }
+
+    /**
+     * Pushes a moving object out of the solid objects it overlaps: first vertically out of the solids it
+     * was above or below before it moved, then horizontally out of the solids it was beside, and out of
+     * any others along the axis of least penetration.
+     *
+     * @param dynamic The moving object.
+     */
+    private void resolve(Dynamic dynamic) {
+        GameObject object = dynamic.object;
+        Vector2 previous = dynamic.resolvedTopLeft;
+        if (previous != null) {
+            for (GameObject solid : solids) {
+                if (wasApart(object, previous, solid, true)) {
+                    pushOut(object, solid, true);
+                }
+            }
+        }
+        for (GameObject solid : solids) {
+            if (previous != null && wasApart(object, previous, solid, false)) {
+                pushOut(object, solid, false);
+            } else {
+                pushOut(object, solid, penetration(object, solid, true) <= penetration(object, solid, false));
+            }
+        }
+        solids.clear();
+        dynamic.resolvedTopLeft = object.getTopLeftCorner();
+    }
+
+    /**
+     * Checks whether a moving object was outside of a solid object along one axis, before it moved.
+     *
+     * @param object   The moving object.
+     * @param previous The top-left corner of the moving object before it moved.
+     * @param solid    The solid object.
+     * @param vertical Whether to check along the y-axis rather than the x-axis.
+     * @return True if the two did not overlap along the axis, up to the separation tolerance.
+     */
+    private static boolean wasApart(GameObject object, Vector2 previous, GameObject solid, boolean vertical) {
+        float start = vertical ? previous.y() : previous.x();
+        float length = vertical ? object.getDimensions().y() : object.getDimensions().x();
+        float solidStart = vertical ? solid.getTopLeftCorner().y() : solid.getTopLeftCorner().x();
+        float solidLength = vertical ? solid.getDimensions().y() : solid.getDimensions().x();
+        return start + length <= solidStart + SEPARATION_TOLERANCE ||
+                start >= solidStart + solidLength - SEPARATION_TOLERANCE;
+    }
+
+    /**
+     * Computes the signed distance that pushes a moving object out of a solid object along one axis,
+     * towards the nearer side of the solid object.
+     *
+     * @param object   The moving object.
+     * @param solid    The solid object.
+     * @param vertical Whether to push along the y-axis rather than the x-axis.
+     * @return The push distance.
+     */
+    private static float push(GameObject object, GameObject solid, boolean vertical) {
+        Vector2 topLeft = object.getTopLeftCorner();
+        Vector2 dimensions = object.getDimensions();
+        Vector2 solidTopLeft = solid.getTopLeftCorner();
+        Vector2 solidDimensions = solid.getDimensions();
+        float start = vertical ? topLeft.y() : topLeft.x();
+        float length = vertical ? dimensions.y() : dimensions.x();
+        float solidStart = vertical ? solidTopLeft.y() : solidTopLeft.x();
+        float solidLength = vertical ? solidDimensions.y() : solidDimensions.x();
+        float before = start + length - solidStart;
+        float after = solidStart + solidLength - start;
+        return before < after ? -before : after;
+    }
+
+    /**
+     * Computes how deep a moving object is in a solid object along one axis.
+     *
+     * @param object   The moving object.
+     * @param solid    The solid object.
+     * @param vertical Whether to measure along the y-axis rather than the x-axis.
+     * @return The penetration depth.
+     */
+    private static float penetration(GameObject object, GameObject solid, boolean vertical) {
+        return Math.abs(push(object, solid, vertical));
+    }
+
+    /**
+     * Pushes a moving object out of a solid object along one axis, if they still overlap, and stops its
+     * velocity along that axis if it moves into the solid object.
+     *
+     * @param object   The moving object.
+     * @param solid    The solid object.
+     * @param vertical Whether to push along the y-axis rather than the x-axis.
+     */
+    private static void pushOut(GameObject object, GameObject solid, boolean vertical) {
+        if (!overlap(object, solid)) {
+            return;
+        }
+        float push = push(object, solid, vertical);
+        Vector2 topLeft = object.getTopLeftCorner();
+        Vector2 velocity = object.getVelocity();
+        if (vertical) {
+            object.setTopLeftCorner(new Vector2(topLeft.x(), topLeft.y() + push));
+            if (velocity.y() * push < 0) {
+                object.transform().setVelocityY(0);
+            }
+        } else {
+            object.setTopLeftCorner(new Vector2(topLeft.x() + push, topLeft.y()));
+            if (velocity.x() * push < 0) {
+                object.transform().setVelocityX(0);
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package pepse.world.collisions;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+import pepse.world.Block;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The StaticGrid is a uniform grid of cells aligned to the terrain blocks, indexing the objects that never
+ * move by the cells their bounds overlap. Finding the static objects near a moving object only visits the
+ * few cells around it, however many static objects the world holds.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public class StaticGrid {
+    /**
+     * The size of a cell, equal to a block's.
+     */
+    private static final int CELL_SIZE = Block.SIZE;
+
+    /**
+     * Mask of the lower 32 bits of a cell key.
+     */
+    private static final long LOW_BITS = 0xFFFFFFFFL;
+
+    private final Map<Long, List<GameObject>> cells;
+    private final Map<GameObject, long[]> objectCells;
+
+    /**
+     * Constructs an empty StaticGrid.
+     */
+    public StaticGrid() {
+        this.cells = new HashMap<>();
+        this.objectCells = new HashMap<>();
+    }
+
+    /**
+     * Adds an object to every cell its bounds overlap. Adding an object again does nothing.
+     *
+     * @param object The static object.
+     */
+    public void add(GameObject object) {
+        if (objectCells.containsKey(object)) {
+            return;
+        }
+        Vector2 topLeft = object.getTopLeftCorner();
+        Vector2 dimensions = object.getDimensions();
+        int minColumn = cellOf(topLeft.x());
+        int maxColumn = lastCellOf(topLeft.x() + dimensions.x());
+        int minRow = cellOf(topLeft.y());
+        int maxRow = lastCellOf(topLeft.y() + dimensions.y());
+        long[] keys = new long[(maxColumn - minColumn + 1) * (maxRow - minRow + 1)];
+        int i = 0;
+        for (int column = minColumn; column <= maxColumn; column++) {
+            for (int row = minRow; row <= maxRow; row++) {
+                keys[i] = key(column, row);
+                cells.computeIfAbsent(keys[i], cell -> new ArrayList<>(1)).add(object);
+                i++;
+            }
+        }
+        objectCells.put(object, keys);
+    }
+
+    /**
+     * Removes an object from the grid, if it was added.
+     *
+     * @param object The static object.
+     */
+    public void remove(GameObject object) {
+        long[] keys = objectCells.remove(object);
+        if (keys == null) {
+            return;
+        }
+        for (long key : keys) {
+            List<GameObject> objects = cells.get(key);
+            objects.remove(object);
+            if (objects.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Collects the static objects in the cells overlapped by the given bounds. The objects are candidates:
+     * their own bounds are not tested.
+     *
+     * @param topLeft    The top-left corner of the bounds.
+     * @param dimensions The dimensions of the bounds.
+     * @param candidates The set to add the objects to, which removes duplicates of objects spanning cells.
+     */
+    public void query(Vector2 topLeft, Vector2 dimensions, Set<GameObject> candidates) {
+        int maxColumn = lastCellOf(topLeft.x() + dimensions.x());
+        int maxRow = lastCellOf(topLeft.y() + dimensions.y());
+        for (int column = cellOf(topLeft.x()); column <= maxColumn; column++) {
+            for (int row = cellOf(topLeft.y()); row <= maxRow; row++) {
+                List<GameObject> objects = cells.get(key(column, row));
+                if (objects != null) {
+                    candidates.addAll(objects);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the cell of a coordinate.
+     *
+     * @param coordinate The coordinate.
+     * @return The cell index along the coordinate's axis.
+     */
+    private static int cellOf(float coordinate) {
+        return (int) Math.floor(coordinate / CELL_SIZE);
+    }
+
+    /**
+     * Returns the last cell reached by bounds ending at a coordinate (exclusive).
+     *
+     * @param end The coordinate right after the bounds.
+     * @return The cell index along the coordinate's axis.
+     */
+    private static int lastCellOf(float end) {
+        return (int) Math.ceil(end / CELL_SIZE) - 1;
+    }
+
+    /**
+     * Packs the column and row of a cell into a key.
+     *
+     * @param column The column of the cell.
+     * @param row    The row of the cell.
+     * @return The key of the cell.
+     */
+    private static long key(int column, int row) {
+        return (long) column << Integer.SIZE | (row & LOW_BITS);
+    }
+}
@@ -1,7 +1,5 @@
 package pepse.world.trees;
 
-import danogl.util.Vector2;
-import pepse.util.NoiseGenerator;
 import pepse.world.Block;
 import pepse.world.JumpObserver;
 
@@ -9,12 +7,16 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Random;
-import java.util.function.Consumer;
 import java.util.function.Function;
 
+import static pepse.world.trees.Trunk.MAX_TREE_HEIGHT;
+import static pepse.world.trees.Trunk.MIN_TREE_HEIGHT;
+
 
 /**
  * The Flora class is responsible for generating Game objects within a given range.
+ * It keeps no state between calls: every range is planned from the seed alone, so the same range always
+ * produces the same trees and nothing generated is retained by the Flora.
  *
  * @author Dana Zilca and Noam Nachum
  */
@@ -25,9 +27,18 @@ public class Flora {
     /** Probability factor for tree placement. */
     private static final double PROB_FACTOR = 0.1f;
 
+    /**
+     * Default size of the tree's square area for leaves and fruit placement.
+     */
+    private static final int SQUARE_SIZE = 60;
+
+    /**
+     * Probability factor for the presence of leaves.
+     */
+    private static final double LEAF_PROB = 0.5;
+
     private final Function<Float,Float> groundHeightAt;
-    private List<JumpObserver> treeObjects;
-    private final Consumer<Integer> addEnergy;
+    private final TreePools pools;
     private final int seed;
 
 
@@ -35,15 +46,14 @@ public class Flora {
      * Constructs a Flora instance with the given parameters.
      *
      * @param groundHeightAt Function to get the ground height at a specific x-coordinate.
-     * @param addEnergy Consumer function to add energy.
+     * @param pools The shared pools the created trees take their trunks, leaves and fruit from.
      * @param seed Seed for random number generation.
      */
     public Flora(Function<Float, Float> groundHeightAt,
-                 Consumer<Integer> addEnergy,
+                 TreePools pools,
                  int seed) {
         this.groundHeightAt = groundHeightAt;
-        this.addEnergy = addEnergy;
-        treeObjects = new ArrayList<>();
+        this.pools = pools;
         this.seed = seed;
     }
 
@@ -52,27 +62,71 @@ public class Flora {
      *
      * @param minX Minimum x-coordinate for tree placement.
      * @param maxX Maximum x-coordinate for tree placement.
-     * @return List of created tree GameObjects.
+     * @return List of the tree GameObjects created in this range only.
      */
     public List<JumpObserver> createInRange(int minX, int maxX) {
-//        Random random = new Random(seed);
+        List<JumpObserver> treeObjects = new ArrayList<>();
+        FloraData data = planInRange(minX, maxX);
+        for (int i = 0; i < data.treeCount(); i++) {
+            Tree tree = new Tree(data, i, pools);
+            treeObjects.add(tree.getTrunk());
+            treeObjects.addAll(tree.getLeaves());
+            treeObjects.addAll(tree.getFruit());
+        }
+        return treeObjects;
+    }
 
+    /**
+     * Plans the trees within a specified range of x-coordinates without creating any game objects.
+     * This method does not modify the Flora, so it may be called from any thread.
+     *
+     * @param minX Minimum x-coordinate for tree placement.
+     * @param maxX Maximum x-coordinate for tree placement.
+     * @return The data describing the trees in the range.
+     */
+    public FloraData planInRange(int minX, int maxX) {
         if (minX >= maxX) {
             throw new IllegalArgumentException(MIN_MAX_ERROR);
         }
 
-        int min = (int) (Math.floor((double) (minX - Block.SIZE) / Block.SIZE) * Block.SIZE);
-        int max = (int) (Math.ceil((double) (maxX + Block.SIZE) / Block.SIZE) * Block.SIZE);
+        FloraData.Builder builder = new FloraData.Builder();
+        int min = (int) (Math.floor((double) minX / Block.SIZE) * Block.SIZE);
+        int max = (int) (Math.ceil((double) maxX / Block.SIZE) * Block.SIZE);
         for (int i = min; i < max; i+=Block.SIZE) {
             Random random = new Random(Objects.hash(i, seed));
             double randomNumber = random.nextDouble();
             if (randomNumber < PROB_FACTOR) {
-                Tree tree = new Tree(i, groundHeightAt, addEnergy, Objects.hash(i, seed));
-                treeObjects.add(tree.getTrunk());
-                treeObjects.addAll(tree.getLeaves());
-                treeObjects.addAll(tree.getFruit());
+                planTree(i, groundHeightAt, Objects.hash(i, seed), builder);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Plans a single tree: its trunk height and the layout of its leaves.
+     *
+     * @param treeLocation   The x-coordinate of the tree location.
+     * @param groundHeightAt A function to get the ground height at a specific x-coordinate.
+     * @param seed           Seed for random number generation.
+     * @param builder        The builder to add the tree to.
+     */
+    static void planTree(int treeLocation,
+                         Function<Float, Float> groundHeightAt,
+                         int seed,
+                         FloraData.Builder builder) {
+        Random random = new Random(seed);
+        int trunkHeight = random.nextInt(MAX_TREE_HEIGHT) + MIN_TREE_HEIGHT;
+        float trunkY = groundHeightAt.apply((float) treeLocation) - trunkHeight;
+        builder.addTree(treeLocation, trunkY, trunkHeight);
+
+        random = new Random(seed);
+        for (int j = 0; j < SQUARE_SIZE; j += Leaf.SIZE) {
+            for (int i = 0; i < SQUARE_SIZE; i += Leaf.SIZE) {
+                double randomNumber = random.nextDouble();
+                if (randomNumber < LEAF_PROB) {
+                    builder.addLeaf(treeLocation + j - Trunk.TRUNK_WIDTH, trunkY + i);
+                }
             }
         }
-        return treeObjects;
     }
 }
@@ -0,0 +1,216 @@
+package pepse.world.trees;
+
+import java.util.Arrays;
+
+/**
+ * The FloraData class is a compact, immutable description of the trees of a range, stored as a
+ * struct of arrays: one entry per tree for the trunk, and one entry per leaf, with the leaves of tree i
+ * at positions [leafStart(i), leafEnd(i)). Colors are not stored: they are picked from the material
+ * palettes by position when the trees are created.
+ * It holds no game objects, so it can be computed on any thread, cached, and turned into
+ * {@link Tree}s later.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public class FloraData {
+    private final int treeCount;
+    private final float[] trunkX;
+    private final float[] trunkY;
+    private final int[] trunkHeights;
+    private final int[] leafStarts;
+    private final float[] leafX;
+    private final float[] leafY;
+
+    /**
+     * Constructs a FloraData object from its arrays, which must not be modified afterwards.
+     *
+     * @param treeCount    The number of trees.
+     * @param trunkX       The x-coordinate of the top-left corner of each trunk.
+     * @param trunkY       The y-coordinate of the top-left corner of each trunk.
+     * @param trunkHeights The height of each trunk.
+     * @param leafStarts   For each tree, the position of its first leaf, followed by the number of leaves.
+     * @param leafX        The x-coordinate of the top-left corner of each leaf.
+     * @param leafY        The y-coordinate of the top-left corner of each leaf.
+     */
+    private FloraData(int treeCount,
+                      float[] trunkX,
+                      float[] trunkY,
+                      int[] trunkHeights,
+                      int[] leafStarts,
+                      float[] leafX,
+                      float[] leafY) {
+        this.treeCount = treeCount;
+        this.trunkX = trunkX;
+        this.trunkY = trunkY;
+        this.trunkHeights = trunkHeights;
+        this.leafStarts = leafStarts;
+        this.leafX = leafX;
+        this.leafY = leafY;
+    }
+
+    /**
+     * Gets the number of trees.
+     *
+     * @return The number of trees.
+     */
+    public int treeCount() {
+        return treeCount;
+    }
+
+    /**
+     * Gets the x-coordinate of the top-left corner of a trunk.
+     *
+     * @param tree The tree.
+     * @return The x-coordinate of the trunk.
+     */
+    public float trunkX(int tree) {
+        return trunkX[tree];
+    }
+
+    /**
+     * Gets the y-coordinate of the top-left corner of a trunk.
+     *
+     * @param tree The tree.
+     * @return The y-coordinate of the trunk.
+     */
+    public float trunkY(int tree) {
+        return trunkY[tree];
+    }
+
+    /**
+     * Gets the height of a trunk.
+     *
+     * @param tree The tree.
+     * @return The height of the trunk.
+     */
+    public int trunkHeight(int tree) {
+        return trunkHeights[tree];
+    }
+
+    /**
+     * Gets the position of the first leaf of a tree.
+     *
+     * @param tree The tree.
+     * @return The position of the tree's first leaf.
+     */
+    public int leafStart(int tree) {
+        return leafStarts[tree];
+    }
+
+    /**
+     * Gets the position right after the last leaf of a tree.
+     *
+     * @param tree The tree.
+     * @return The end position of the tree's leaves (exclusive).
+     */
+    public int leafEnd(int tree) {
+        return leafStarts[tree + 1];
+    }
+
+    /**
+     * Gets the x-coordinate of the top-left corner of a leaf.
+     *
+     * @param leaf The position of the leaf.
+     * @return The x-coordinate of the leaf.
+     */
+    public float leafX(int leaf) {
+        return leafX[leaf];
+    }
+
+    /**
+     * Gets the y-coordinate of the top-left corner of a leaf.
+     *
+     * @param leaf The position of the leaf.
+     * @return The y-coordinate of the leaf.
+     */
+    public float leafY(int leaf) {
+        return leafY[leaf];
+    }
+
+    /**
+     * Gets the total number of leaves.
+     *
+     * @return The number of leaves of all the trees.
+     */
+    public int leafCount() {
+        return leafStarts[treeCount];
+    }
+
+    /**
+     * Collects trees and leaves into growing arrays and builds a FloraData from them.
+     * Leaves belong to the tree added last.
+     */
+    public static class Builder {
+        /** The initial capacity of the arrays. */
+        private static final int INITIAL_CAPACITY = 8;
+
+        private int treeCount;
+        private int leafCount;
+        private float[] trunkX = new float[INITIAL_CAPACITY];
+        private float[] trunkY = new float[INITIAL_CAPACITY];
+        private int[] trunkHeights = new int[INITIAL_CAPACITY];
+        private int[] leafStarts = new int[INITIAL_CAPACITY + 1];
+        private float[] leafX = new float[INITIAL_CAPACITY];
+        private float[] leafY = new float[INITIAL_CAPACITY];
+
+        /**
+         * Adds a tree.
+         *
+         * @param x      The x-coordinate of the top-left corner of the trunk.
+         * @param y      The y-coordinate of the top-left corner of the trunk.
+         * @param height The height of the trunk.
+         * @return This builder.
+         */
+        public Builder addTree(float x, float y, int height) {
+            if (treeCount == trunkX.length) {
+                int capacity = treeCount * 2;
+                trunkX = Arrays.copyOf(trunkX, capacity);
+                trunkY = Arrays.copyOf(trunkY, capacity);
+                trunkHeights = Arrays.copyOf(trunkHeights, capacity);
+                leafStarts = Arrays.copyOf(leafStarts, capacity + 1);
+            }
+            trunkX[treeCount] = x;
+            trunkY[treeCount] = y;
+            trunkHeights[treeCount] = height;
+            leafStarts[treeCount] = leafCount;
+            treeCount++;
+            leafStarts[treeCount] = leafCount;
+            return this;
+        }
+
+        /**
+         * Adds a leaf to the tree added last.
+         *
+         * @param x     The x-coordinate of the top-left corner of the leaf.
+         * @param y     The y-coordinate of the top-left corner of the leaf.
+         * @return This builder.
+         */
+        public Builder addLeaf(float x, float y) {
+            if (leafCount == leafX.length) {
+                int capacity = leafCount * 2;
+                leafX = Arrays.copyOf(leafX, capacity);
+                leafY = Arrays.copyOf(leafY, capacity);
+            }
+            leafX[leafCount] = x;
+            leafY[leafCount] = y;
+            leafCount++;
+            leafStarts[treeCount] = leafCount;
+            return this;
+        }
+
+        /**
+         * Builds the FloraData, trimming the arrays to their size.
+         *
+         * @return The FloraData.
+         */
+        public FloraData build() {
+            return new FloraData(treeCount,
+                    Arrays.copyOf(trunkX, treeCount),
+                    Arrays.copyOf(trunkY, treeCount),
+                    Arrays.copyOf(trunkHeights, treeCount),
+                    Arrays.copyOf(leafStarts, treeCount + 1),
+                    Arrays.copyOf(leafX, leafCount),
+                    Arrays.copyOf(leafY, leafCount));
+        }
+    }
+}
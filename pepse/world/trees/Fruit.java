@@ -2,11 +2,12 @@ package pepse.world.trees;
 
 import danogl.GameObject;
 import danogl.collisions.Collision;
-import danogl.components.Transition;
 import danogl.gui.rendering.OvalRenderable;
+import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
-import pepse.world.Avatar;
 import pepse.world.JumpObserver;
+import pepse.world.ObjectTypes;
+import pepse.world.TypedObject;
 
 import java.awt.*;
 import java.util.function.Consumer;
@@ -14,10 +15,12 @@ import java.util.function.Consumer;
 /**
  * Represents a fruit object in a tree, capable of changing color on jump events
  * and providing energy points when collected by the avatar.
+ * An eaten fruit regrows over a cycle; its ripeness is computed from the time since it was eaten on the
+ * clock of a shared {@link FruitRegrowth}, which shows it only while the fruit is awake.
  *
  * @author Dana Zilca and Noam Nachum
  */
-public class Fruit extends GameObject implements JumpObserver {
+public class Fruit extends GameObject implements JumpObserver, TypedObject {
 
     /**
      * The tag associated with the fruit object.
@@ -39,6 +42,16 @@ public class Fruit extends GameObject implements JumpObserver {
      */
     private static final Color SECOND_COLOR = Color.BLUE;
 
+    /**
+     * The renderable of the default color, shared by all fruit.
+     */
+    private static final Renderable DEFAULT_RENDERABLE = new OvalRenderable(DEFAULT_COLOR);
+
+    /**
+     * The renderable of the secondary color, shared by all fruit.
+     */
+    private static final Renderable SECOND_RENDERABLE = new OvalRenderable(SECOND_COLOR);
+
     /**
      * The energy points awarded to the avatar upon collecting the fruit.
      */
@@ -56,7 +69,10 @@ public class Fruit extends GameObject implements JumpObserver {
 
     private final float cycleLength;
     private final Consumer<Integer> addEnergy;
+    private final FruitRegrowth regrowth;
     private boolean isDefault;
+    private boolean regrowing;
+    private double regrowStart;
 
     /**
      * Constructs a fruit object with the given position, cycle length, and energy consumer.
@@ -64,11 +80,33 @@ public class Fruit extends GameObject implements JumpObserver {
      * @param topLeftCorner The position of the fruit.
      * @param cycleLength   The length of the cycle for the fruit's visibility transition.
      * @param addEnergy     A consumer to add energy points to the avatar.
+     * @param regrowth      The shared regrowth that shows the fruit's ripeness after it is eaten.
      */
-    public Fruit(Vector2 topLeftCorner, float cycleLength, Consumer<Integer> addEnergy) {
-        super(topLeftCorner, Vector2.of(DEFAULT_SIZE, DEFAULT_SIZE), new OvalRenderable(DEFAULT_COLOR));
+    public Fruit(Vector2 topLeftCorner,
+                 float cycleLength,
+                 Consumer<Integer> addEnergy,
+                 FruitRegrowth regrowth) {
+        super(topLeftCorner, Vector2.of(DEFAULT_SIZE, DEFAULT_SIZE), DEFAULT_RENDERABLE);
         this.cycleLength = cycleLength;
         this.addEnergy = addEnergy;
+        this.regrowth = regrowth;
+        this.isDefault = true;
+    }
+
+    /**
+     * Rebinds a pooled fruit to a new position, ripe and in its default color, so it can be reused.
+     * Stops the fruit from regrowing if it was eaten before it was removed.
+     *
+     * @param topLeftCorner The new position of the fruit.
+     */
+    public void reset(Vector2 topLeftCorner) {
+        if (regrowing) {
+            regrowth.remove(this);
+            regrowing = false;
+        }
+        setTopLeftCorner(topLeftCorner);
+        renderer().setRenderable(DEFAULT_RENDERABLE);
+        renderer().setOpaqueness(MAX_OPAQUE);
         this.isDefault = true;
     }
 
@@ -79,30 +117,40 @@ public class Fruit extends GameObject implements JumpObserver {
     @Override
     public void onJump() {
         if (isDefault) {
-            renderer().setRenderable(new OvalRenderable(SECOND_COLOR));
+            renderer().setRenderable(SECOND_RENDERABLE);
             isDefault = false;
         } else {
-            renderer().setRenderable(new OvalRenderable(DEFAULT_COLOR));
+            renderer().setRenderable(DEFAULT_RENDERABLE);
             isDefault = true;
         }
     }
 
     /**
      * Determines if this fruit should collide with another GameObject.
-     * Only allows collisions with objects tagged as "avatar".
+     * Only allows collisions with the avatar.
      *
      * @param other The other GameObject to check for collision.
      * @return True if the fruit should collide with the other object, false otherwise.
      */
     @Override
     public boolean shouldCollideWith(GameObject other) {
-        return super.shouldCollideWith(other) && (other.getTag().equals(Avatar.AVATAR_TAG));
+        return super.shouldCollideWith(other) && ObjectTypes.collide(ObjectTypes.FRUIT, other);
+    }
+
+    /**
+     * Gets the type of the fruit.
+     *
+     * @return ObjectTypes.FRUIT.
+     */
+    @Override
+    public int getObjectType() {
+        return ObjectTypes.FRUIT;
     }
 
     /**
      * Handles the event when a collision with another GameObject occurs.
-     * If the fruit is fully opaque, it adds energy points to the avatar and starts a transition
-     * to make the fruit reappear after a specified cycle length.
+     * If the fruit is ripe, it adds energy points to the avatar and starts regrowing the fruit,
+     * which reappears after a specified cycle length.
      *
      * @param other     The other GameObject involved in the collision.
      * @param collision The collision details.
@@ -111,18 +159,60 @@ public class Fruit extends GameObject implements JumpObserver {
     public void onCollisionEnter(GameObject other, Collision collision) {
         super.onCollisionEnter(other, collision);
 
-        if (renderer().getOpaqueness() == MAX_OPAQUE) {
+        if (getRipeness() >= MAX_OPAQUE) {
             this.addEnergy.accept(ENERGY_POINTS_ON_COLLECT);
-            new Transition<Float>(
-                    this,
-                    renderer()::setOpaqueness,
-                    MIN_OPAQUE,
-                    MAX_OPAQUE,
-                    Transition.LINEAR_INTERPOLATOR_FLOAT,
-                    cycleLength,
-                    Transition.TransitionType.TRANSITION_ONCE,
-                    null
-            );
+            regrow(MIN_OPAQUE);
+        }
+    }
+
+    /**
+     * Gets the ripeness of the fruit, which is the opaqueness it is shown with while awake.
+     *
+     * @return The ripeness, from 0 (just eaten) to 1 (ripe).
+     */
+    public float getRipeness() {
+        if (!regrowing) {
+            return MAX_OPAQUE;
         }
+        return (float) Math.min(MAX_OPAQUE, (regrowth.time() - regrowStart) / cycleLength);
+    }
+
+    /**
+     * Sets the ripeness of the fruit, e.g. when it is restored from a saved chunk. An unripe fruit
+     * continues to regrow at the usual pace.
+     *
+     * @param ripeness The ripeness, from 0 (just eaten) to 1 (ripe).
+     */
+    public void setRipeness(float ripeness) {
+        if (ripeness < MAX_OPAQUE) {
+            regrow(Math.max(MIN_OPAQUE, ripeness));
+        }
+    }
+
+    /**
+     * Shows the ripeness of the fruit as its opaqueness, and stops regrowing it once it is ripe.
+     *
+     * @return True if the fruit is ripe, false if it is still regrowing.
+     */
+    boolean showRipeness() {
+        float ripeness = getRipeness();
+        renderer().setOpaqueness(ripeness);
+        if (ripeness >= MAX_OPAQUE) {
+            regrowing = false;
+        }
+        return !regrowing;
+    }
+
+    /**
+     * Makes the fruit regrow from the given opaqueness until it is fully opaque, over the part of the
+     * cycle that is left.
+     *
+     * @param opaqueness The opaqueness to regrow from.
+     */
+    private void regrow(float opaqueness) {
+        renderer().setOpaqueness(opaqueness);
+        regrowing = true;
+        regrowStart = regrowth.time() - opaqueness * cycleLength;
+        regrowth.add(this);
     }
 }
@@ -0,0 +1,96 @@
+package pepse.world.trees;
+
+import pepse.world.AwakeArea;
+import pepse.world.SpatialIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The FruitRegrowth regrows the eaten fruit of the world from one shared clock.
+ * The ripeness of a fruit is a function of the time since it was eaten, so the fruit need no update of
+ * their own; once per tick the regrowth shows the ripeness of the regrowing fruit in the
+ * {@link AwakeArea}, found through an index of the fruit by position, and forgets those that are ripe.
+ * A fruit that wakes up is shown at once with the ripeness it has reached while asleep.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public class FruitRegrowth {
+    private final AwakeArea awakeArea;
+    private final SpatialIndex<Fruit> regrowing;
+    private final List<Fruit> ripe;
+    private final Consumer<Fruit> show;
+    private double time;
+
+    /**
+     * Constructs a FruitRegrowth with no regrowing fruit, that shows the ripeness of every fruit.
+     */
+    public FruitRegrowth() {
+        this(new AwakeArea());
+    }
+
+    /**
+     * Constructs a FruitRegrowth with no regrowing fruit, that shows the ripeness of the fruit in an area.
+     *
+     * @param awakeArea The area in which the ripeness of the fruit is shown.
+     */
+    public FruitRegrowth(AwakeArea awakeArea) {
+        this.awakeArea = awakeArea;
+        this.regrowing = new SpatialIndex<>();
+        this.ripe = new ArrayList<>();
+        this.show = this::show;
+    }
+
+    /**
+     * Starts showing the regrowth of a fruit. Adding a fruit again moves it to its current position.
+     *
+     * @param fruit The regrowing fruit.
+     */
+    public void add(Fruit fruit) {
+        regrowing.add(fruit, fruit.getCenter().x());
+    }
+
+    /**
+     * Stops showing the regrowth of a fruit, e.g. when it is removed from the world.
+     *
+     * @param fruit The fruit.
+     */
+    public void remove(Fruit fruit) {
+        regrowing.remove(fruit);
+    }
+
+    /**
+     * Advances the shared clock and shows the ripeness of the awake regrowing fruit. Called once per tick.
+     *
+     * @param deltaTime The simulated time of the tick, in seconds.
+     */
+    public void update(float deltaTime) {
+        time += deltaTime;
+        awakeArea.forEachInWidth(regrowing, show);
+        for (Fruit fruit : ripe) {
+            regrowing.remove(fruit);
+        }
+        ripe.clear();
+    }
+
+    /**
+     * Gets the time of the shared clock.
+     *
+     * @return The simulated time since the regrowth was constructed, in seconds.
+     */
+    public double time() {
+        return time;
+    }
+
+    /**
+     * Shows the ripeness of a fruit if it is awake, and remembers it if it is ripe.
+     *
+     * @param fruit The fruit.
+     */
+    private void show(Fruit fruit) {
+        if (awakeArea.contains(fruit) && fruit.showRipeness()) {
+            ripe.add(fruit);
+        }
+    }
+}
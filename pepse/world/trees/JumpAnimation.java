@@ -0,0 +1,137 @@
+package pepse.world.trees;
+
+import danogl.components.Transition;
+import pepse.world.AwakeArea;
+import pepse.world.SpatialIndex;
+
+import java.util.function.Consumer;
+
+/**
+ * The JumpAnimation rotates the leaves that noticed the avatar's last jump, driven by one shared clock.
+ * Leaves add themselves when notified of a jump; once per tick the animation computes a single angle
+ * and applies it to them, so a jump allocates no components, however many leaves it reaches.
+ * Only the leaves in the {@link AwakeArea} are visited, found through an index of the leaves by position;
+ * the others are not rotated until they wake up and take the current angle.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public class JumpAnimation {
+    /**
+     * The initial angle of the jump rotation.
+     */
+    private static final float START_ANGLE = 0.0f;
+
+    /**
+     * The final angle of the jump rotation.
+     */
+    private static final float FINAL_ANGLE = 90f;
+
+    /**
+     * The duration of the jump rotation, in seconds.
+     */
+    private static final float DURATION = 2.5f;
+
+    private final AwakeArea awakeArea;
+    private final SpatialIndex<Leaf> leaves;
+    private final Consumer<Leaf> rotate;
+    private float angle;
+    private float elapsed;
+    private long tick;
+    private long startTick;
+    private int jumps;
+
+    /**
+     * Constructs an idle JumpAnimation that rotates every leaf that noticed a jump.
+     */
+    public JumpAnimation() {
+        this(new AwakeArea());
+    }
+
+    /**
+     * Constructs an idle JumpAnimation that rotates only the leaves in an area.
+     *
+     * @param awakeArea The area in which leaves are rotated.
+     */
+    public JumpAnimation(AwakeArea awakeArea) {
+        this.awakeArea = awakeArea;
+        this.leaves = new SpatialIndex<>();
+        this.rotate = this::rotate;
+        this.startTick = -1;
+    }
+
+    /**
+     * Adds a leaf to the animation of the current jump.
+     *
+     * @param leaf The leaf that noticed the jump.
+     */
+    public void add(Leaf leaf) {
+        jump();
+        leaves.add(leaf, leaf.getCenter().x());
+    }
+
+    /**
+     * Gets the number of the jump noticed in the current tick. The first call in a tick starts a new
+     * animation, replacing the leaves of the previous jump. Counting jumps on the shared clock lets the
+     * objects noticing a jump react to it deterministically.
+     *
+     * @return The number of the jump, counted from 1.
+     */
+    public int jump() {
+        if (startTick != tick) {
+            leaves.clear();
+            elapsed = 0;
+            startTick = tick;
+            jumps++;
+        }
+        return jumps;
+    }
+
+    /**
+     * Removes a leaf from the animation, e.g. when it is removed from the world mid-jump.
+     *
+     * @param leaf The leaf.
+     */
+    public void remove(Leaf leaf) {
+        leaves.remove(leaf);
+    }
+
+    /**
+     * Advances the shared clock and rotates the awake animated leaves. Called once per tick, after the
+     * leaves themselves were updated.
+     *
+     * @param deltaTime The simulated time of the tick, in seconds.
+     */
+    public void update(float deltaTime) {
+        tick++;
+        if (leaves.size() == 0) {
+            return;
+        }
+        elapsed += deltaTime;
+        float progress = Math.min(1, elapsed / DURATION);
+        angle = Transition.CUBIC_INTERPOLATOR_FLOAT.interpolate(START_ANGLE, FINAL_ANGLE, progress);
+        awakeArea.forEachInWidth(leaves, rotate);
+        if (progress >= 1) {
+            leaves.clear();
+        }
+    }
+
+    /**
+     * Rotates a leaf to the current angle, if it is awake.
+     *
+     * @param leaf The leaf.
+     */
+    private void rotate(Leaf leaf) {
+        if (awakeArea.contains(leaf)) {
+            leaf.renderer().setRenderableAngle(angle);
+        }
+    }
+
+    /**
+     * Gets the number of leaves being animated.
+     *
+     * @return The number of animated leaves.
+     */
+    public int size() {
+        return leaves.size();
+    }
+}
@@ -2,24 +2,22 @@ package pepse.world.trees;
 
 import danogl.GameObject;
 import danogl.components.GameObjectPhysics;
-import danogl.components.ScheduledTask;
-import danogl.components.Transition;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
-import pepse.world.Block;
 import pepse.world.JumpObserver;
+import pepse.world.ObjectTypes;
+import pepse.world.TypedObject;
 
 import java.awt.*;
-import java.util.Random;
 
 /**
  * Represents a leaf object in a tree, capable of swaying in the wind.
- * The leaf periodically changes its angle and width to simulate natural movements.
+ * The Wind periodically changes its angle and width to simulate natural movements.
  * It also responds to a jump action, triggering a rotation animation.
  *
  * @author Dana Zilca and Noam Nachum
  */
-public class Leaf extends GameObject implements JumpObserver {
+public class Leaf extends GameObject implements JumpObserver, TypedObject {
     /**
      * The color of the leaf (green).
      */
@@ -29,124 +27,88 @@ public class Leaf extends GameObject implements JumpObserver {
      */
     public static final int SIZE = 30;
     /**
-     * The initial angle for the sway transition.
+     * The dimensions of a leaf that is not swaying.
      */
-    private static final float SWAY_START_ANGLE = 1f;
-    /**
-     * The final angle for the sway transition.
-     */
-    private static final float SWAY_FINAL_ANGLE = 2f;
-    /**
-     * A random float value used to vary the sway angles.
-     */
-    private static final float SWAY_RANDOM_FLOAT = 50f;
-    /**
-     * The initial width factor for the width transition.
-     */
-    private static final float START_WIDTH = 1f;
-    /**
-     * The final width factor for the width transition.
-     */
-    private static final float FINAL_WIDTH = 0.6f;
-    /**
-     * The initial angle for the jump transition.
-     */
-    private static final float JUMP_START_ANGLE = 0.0f;
-    /**
-     * The final angle for the jump transition.
-     */
-    private static final float JUMP_FINAL_ANGLE = 90f;
-    /**
-     * The duration of the width transition, in seconds.
-     */
-    private static final float WIDTH_TRANSITION_TIME = 5f;
-    /**
-     * The duration of the sway transition, in seconds.
-     */
-    private static final float SWAY_TRANSITION_TIME = 3f;
-    /**
-     * The duration of the jump transition, in seconds.
-     */
-    private static final float JUMP_TRANSITION_TIME = 2.5f;
+    private static final Vector2 DIMENSIONS = Vector2.ONES.mult(SIZE);
+    private final JumpAnimation jumpAnimation;
+    private int windIndex;
 
     /**
      * Constructs a leaf object with the given position and dimensions.
      *
      * @param topLeftCorner   The position of the leaf.
      * @param renderable      The leaf's renderable object.
+     * @param jumpAnimation   The shared animation rotating the leaves when the avatar jumps.
      */
-    public Leaf(Vector2 topLeftCorner, Renderable renderable) {
-        super(topLeftCorner, Vector2.ONES.mult(SIZE), renderable);
+    public Leaf(Vector2 topLeftCorner, Renderable renderable, JumpAnimation jumpAnimation) {
+        super(topLeftCorner, DIMENSIONS, renderable);
+        this.jumpAnimation = jumpAnimation;
         physics().preventIntersectionsFromDirection(Vector2.ZERO);
         physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
-        swayInWind();
+        this.windIndex = -1;
     }
 
     /**
-     * Makes the leaf sway in the wind periodically.
+     * Rebinds a pooled leaf to a new position and renderable, and undoes the rotation and width change
+     * left by the wind and the jump animation, so it can be reused.
+     * The leaf must have been removed from the wind and the jump animation.
      *
-     */
-    public void swayInWind() {
-        Random random = new Random();
-        new ScheduledTask(
-                this,
-                random.nextFloat(),
-                false,
-                this::angleTransitions
-        );
-
-        widthTransitions();
+     * @param topLeftCorner The new position of the leaf.
+     * @param renderable    The new renderable object of the leaf.
+     */
+    public void reset(Vector2 topLeftCorner, Renderable renderable) {
+        setDimensions(DIMENSIONS);
+        setTopLeftCorner(topLeftCorner);
+        renderer().setRenderable(renderable);
+        renderer().setRenderableAngle(0);
+        this.windIndex = -1;
     }
 
     /**
-     * Initiates the angle transitions for the swaying motion.
-     * The leaf's angle oscillates between random values within specified bounds.
+     * Gets the index of the leaf in the wind that sways it.
+     *
+     * @return The index, or -1 if the leaf is not swaying.
      */
-    private void angleTransitions() {
-        Random random = new Random();
-        new Transition<Float>(
-                this,
-                this.renderer()::setRenderableAngle,
-                SWAY_START_ANGLE * random.nextFloat(SWAY_RANDOM_FLOAT),
-                SWAY_FINAL_ANGLE * random.nextFloat(SWAY_RANDOM_FLOAT),
-                Transition.LINEAR_INTERPOLATOR_FLOAT,
-                SWAY_TRANSITION_TIME,
-                Transition.TransitionType.TRANSITION_BACK_AND_FORTH,
-                null
-                );
+    int getWindIndex() {
+        return windIndex;
     }
 
     /**
-     * Initiates the width transitions for the leaf.
-     * The leaf's width oscillates between specified start and final widths.
+     * Sets the index of the leaf in the wind that sways it.
+     *
+     * @param windIndex The index, or -1 if the leaf stopped swaying.
      */
-    private void widthTransitions() {
-        new Transition<Float>(
-                this,
-                (Float width) -> this.setDimensions(Vector2.of(Block.SIZE, Block.SIZE).mult(width)),
-                START_WIDTH,
-                FINAL_WIDTH,
-                Transition.CUBIC_INTERPOLATOR_FLOAT,
-                WIDTH_TRANSITION_TIME,
-                Transition.TransitionType.TRANSITION_BACK_AND_FORTH,
-                null
-        );
+    void setWindIndex(int windIndex) {
+        this.windIndex = windIndex;
     }
 
     /**
-     * Responds to a jump event by initiating a jump transition.
+     * Responds to a jump event by joining the shared jump animation.
      * The leaf rotates to simulate a response to the jump action.
      */
     @Override
     public void onJump() {
-        new Transition<Float>(this,
-                this.renderer()::setRenderableAngle,
-                JUMP_START_ANGLE,
-                JUMP_FINAL_ANGLE,
-                Transition.CUBIC_INTERPOLATOR_FLOAT,
-                JUMP_TRANSITION_TIME,
-                Transition.TransitionType.TRANSITION_ONCE,
-                null
-        );
+        jumpAnimation.add(this);
+    }
+
+    /**
+     * Determines if the leaf should collide with another game object based on its type.
+     *
+     * @param other The other game object.
+     * @return True if a collision should occur, false otherwise.
+     */
+    @Override
+    public boolean shouldCollideWith(GameObject other) {
+        return super.shouldCollideWith(other) && ObjectTypes.collide(ObjectTypes.LEAF, other);
+    }
+
+    /**
+     * Gets the type of the leaf.
+     *
+     * @return ObjectTypes.LEAF.
+     */
+    @Override
+    public int getObjectType() {
+        return ObjectTypes.LEAF;
     }
 }
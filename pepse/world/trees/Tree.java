@@ -1,20 +1,11 @@
 package pepse.world.trees;
 
-import danogl.gui.rendering.RectangleRenderable;
-import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
-import pepse.PepseGameManager;
-import pepse.util.ColorSupplier;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
-import java.util.function.Consumer;
 import java.util.function.Function;
 
-import static pepse.world.trees.Trunk.MAX_TREE_HEIGHT;
-import static pepse.world.trees.Trunk.MIN_TREE_HEIGHT;
-
 /**
  * The Tree class represents a tree in the game world.
  * It consists of a trunk and potentially other tree components.
@@ -32,105 +23,89 @@ public class Tree {
      */
     public static final String LEAF_TAG = "Leaf";
 
-    /**
-     * Default size of the tree's square area for leaves and fruit placement.
-     */
-    private static final int SQUARE_SIZE = 60;
-
-    /**
-     * Probability factor for the presence of leaves.
-     */
-    private static final double LEAF_PROB = 0.5;
-
-    private int treeLocation;
     private Trunk trunk;
     private List<Leaf> leaves;
     private List<Fruit> fruit;
-    private Function<Float, Float> groundHeightAt;
-    private Consumer<Integer> addEnergy;
+    private TreePools pools;
 
     /**
      * Constructs a Tree object at the specified location.
      *
      * @param treeLocation   The x-coordinate of the tree location.
      * @param groundHeightAt A function to get the ground height at a specific x-coordinate.
+     * @param pools          The pools to take the trunk, leaves and fruit from.
+     * @param seed           Seed for random number generation.
      */
     public Tree(int treeLocation,
                 Function<Float, Float> groundHeightAt,
-                Consumer<Integer> addEnergy,
+                TreePools pools,
                 int seed) {
-        this.treeLocation = treeLocation;
-        this.groundHeightAt = groundHeightAt;
+        this(planSingleTree(treeLocation, groundHeightAt, seed), 0, pools);
+    }
+
+    /**
+     * Constructs a Tree object from previously planned flora data, reusing the parts of removed trees.
+     *
+     * @param data  The data describing the trees of a range.
+     * @param tree  The index of this tree in the data.
+     * @param pools The pools to take the trunk, leaves and fruit from.
+     */
+    public Tree(FloraData data, int tree, TreePools pools) {
         this.leaves = new ArrayList<>();
         this.fruit = new ArrayList<>();
-        this.addEnergy = addEnergy;
+        this.pools = pools;
+
+        initTrunk(data, tree);
+        initLeaves(data, tree);
+        initFruits(data, tree);
+    }
 
-        initTrunk(seed);
-        initLeaves(seed);
-        initFruits();
+    /**
+     * Plans a single tree at the specified location.
+     *
+     * @param treeLocation   The x-coordinate of the tree location.
+     * @param groundHeightAt A function to get the ground height at a specific x-coordinate.
+     * @param seed           Seed for random number generation.
+     * @return Flora data holding the tree alone.
+     */
+    private static FloraData planSingleTree(int treeLocation, Function<Float, Float> groundHeightAt, int seed) {
+        FloraData.Builder builder = new FloraData.Builder();
+        Flora.planTree(treeLocation, groundHeightAt, seed, builder);
+        return builder.build();
     }
 
     /**
-     * Initializes the tree trunk at the specified location with a random height.
+     * Initializes the tree trunk.
      */
-    private void initTrunk(int seed) {
-        Random random = new Random(seed);
-        int randomHeight = random.nextInt(MAX_TREE_HEIGHT) + MIN_TREE_HEIGHT;
-        Renderable trunkRender = new RectangleRenderable(ColorSupplier.approximateColor(
-                Trunk.TRUNK_COLOR));
-        Vector2 topLeftCorner = new Vector2(treeLocation,
-                groundHeightAt.apply((float) treeLocation) - randomHeight);
-        trunk = new Trunk(topLeftCorner, randomHeight, trunkRender);
-        trunk.setTag(TRUNK_TAG);
+    private void initTrunk(FloraData data, int tree) {
+        trunk = pools.trunk(new Vector2(data.trunkX(tree), data.trunkY(tree)), data.trunkHeight(tree));
     }
 
     /**
      * Initializes the tree leaves.
      */
-    private void initLeaves(int seed) {
-        Random random = new Random(seed);
-
-        for (int j = 0; j < SQUARE_SIZE; j += Leaf.SIZE) {
-            for (int i = 0; i < SQUARE_SIZE; i += Leaf.SIZE) {
-                double randomNumber = random.nextDouble();
-                if (randomNumber < LEAF_PROB) {
-                    Vector2 leafTopLeft = Vector2.of(trunk.getTopLeftCorner().x(),
-                            trunk.getTopLeftCorner().y());
-
-                    leaves.add(createLeaf(leafTopLeft, j, i));
-                }
-            }
+    private void initLeaves(FloraData data, int tree) {
+        for (int leaf = data.leafStart(tree); leaf < data.leafEnd(tree); leaf++) {
+            leaves.add(createLeaf(data.leafX(leaf), data.leafY(leaf)));
         }
     }
 
     /**
      * Initializes the fruit.
      */
-    private void initFruits() {
-        Fruit newFruit = new Fruit(Vector2.of(trunk.getTopLeftCorner().x(),
-                trunk.getTopLeftCorner().y() - Fruit.DEFAULT_SIZE),
-                PepseGameManager.NIGHT_CYCLE,
-                addEnergy);
-
-        newFruit.setTag(Fruit.FRUIT_TAG);
-
-        fruit.add(newFruit);
+    private void initFruits(FloraData data, int tree) {
+        fruit.add(pools.fruit(Vector2.of(data.trunkX(tree), data.trunkY(tree) - Fruit.DEFAULT_SIZE)));
     }
 
     /**
-     * Creates a leaf at a specified position relative to the tree trunk.
+     * Creates a leaf at a specified position, drawn with a leaf palette variant picked by its position.
      *
-     * @param objectTopLeft The top-left corner position of the object.
-     * @param x             The x-offset for the leaf position.
-     * @param y             The y-offset for the leaf position.
+     * @param x The x-coordinate of the top-left corner of the leaf.
+     * @param y The y-coordinate of the top-left corner of the leaf.
      * @return The created Leaf object.
      */
-    private Leaf createLeaf(Vector2 objectTopLeft, int x, int y) {
-        Renderable leafsRender = new RectangleRenderable(ColorSupplier.approximateColor(Leaf.LEAF_COLOR));
-        Vector2 location = new Vector2(objectTopLeft.x() + x - Trunk.TRUNK_WIDTH, objectTopLeft.y() + y);
-        Leaf leaf = new Leaf(location, leafsRender);
-        leaf.setTag(LEAF_TAG);
-        return leaf;
+    private Leaf createLeaf(float x, float y) {
+        return pools.leaf(new Vector2(x, y));
     }
 
     /**
@@ -0,0 +1,125 @@
+package pepse.world.trees;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+import pepse.PepseGameManager;
+import pepse.util.Palette;
+import pepse.world.ObjectPool;
+
+import java.util.function.Consumer;
+
+/**
+ * The TreePools class keeps the trunks, leaves and fruit of removed trees for reuse by the trees that
+ * are created next. Objects taken from it are rebound to their new position and appearance: trunks and
+ * leaves are drawn with the variants of palettes keyed by the seed of the world, picked by their position.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public class TreePools {
+    private final ObjectPool<Trunk> trunks;
+    private final ObjectPool<Leaf> leaves;
+    private final ObjectPool<Fruit> fruit;
+    private final Palette leafPalette;
+
+    /**
+     * Constructs empty TreePools.
+     *
+     * @param addEnergy     Consumer function to add energy, used by the fruit.
+     * @param jumpAnimation The shared animation rotating the leaves when the avatar jumps.
+     * @param seed          The seed of the world, which the palettes of the trunks and leaves are keyed by.
+     * @param capacity      The maximal number of idle objects kept of each type.
+     */
+    public TreePools(Consumer<Integer> addEnergy, JumpAnimation jumpAnimation, int seed, int capacity) {
+        this(addEnergy, jumpAnimation, new FruitRegrowth(), seed, capacity);
+    }
+
+    /**
+     * Constructs empty TreePools whose fruit regrow through a shared regrowth.
+     *
+     * @param addEnergy     Consumer function to add energy, used by the fruit.
+     * @param jumpAnimation The shared animation rotating the leaves when the avatar jumps.
+     * @param regrowth      The shared regrowth of the eaten fruit.
+     * @param seed          The seed of the world, which the palettes of the trunks and leaves are keyed by.
+     * @param capacity      The maximal number of idle objects kept of each type.
+     */
+    public TreePools(Consumer<Integer> addEnergy,
+                     JumpAnimation jumpAnimation,
+                     FruitRegrowth regrowth,
+                     int seed,
+                     int capacity) {
+        Palette trunkPalette = new Palette(Trunk.TRUNK_COLOR, seed);
+        this.leafPalette = new Palette(Leaf.LEAF_COLOR, seed);
+        this.trunks = new ObjectPool<>(() -> {
+            Trunk trunk = new Trunk(Vector2.ZERO, Trunk.MIN_TREE_HEIGHT, trunkPalette, jumpAnimation);
+            trunk.setTag(Tree.TRUNK_TAG);
+            return trunk;
+        }, capacity);
+        this.leaves = new ObjectPool<>(() -> {
+            Leaf leaf = new Leaf(Vector2.ZERO, leafPalette.at(0, 0), jumpAnimation);
+            leaf.setTag(Tree.LEAF_TAG);
+            return leaf;
+        }, capacity);
+        this.fruit = new ObjectPool<>(() -> {
+            Fruit newFruit = new Fruit(Vector2.ZERO, PepseGameManager.NIGHT_CYCLE, addEnergy, regrowth);
+            newFruit.setTag(Fruit.FRUIT_TAG);
+            return newFruit;
+        }, capacity);
+    }
+
+    /**
+     * Takes a trunk from the pool, or creates one, at the given position.
+     *
+     * @param topLeftCorner The top-left corner position vector of the trunk.
+     * @param height        The height of the trunk.
+     * @return The trunk.
+     */
+    public Trunk trunk(Vector2 topLeftCorner, float height) {
+        Trunk trunk = trunks.obtain();
+        trunk.reset(topLeftCorner, height);
+        return trunk;
+    }
+
+    /**
+     * Takes a leaf from the pool, or creates one, at the given position.
+     *
+     * @param topLeftCorner The position of the leaf.
+     * @return The leaf.
+     */
+    public Leaf leaf(Vector2 topLeftCorner) {
+        Leaf leaf = leaves.obtain();
+        leaf.reset(topLeftCorner, leafPalette.at(topLeftCorner.x(), topLeftCorner.y()));
+        return leaf;
+    }
+
+    /**
+     * Takes a ripe fruit from the pool, or creates one, at the given position.
+     *
+     * @param topLeftCorner The position of the fruit.
+     * @return The fruit.
+     */
+    public Fruit fruit(Vector2 topLeftCorner) {
+        Fruit newFruit = fruit.obtain();
+        newFruit.reset(topLeftCorner);
+        return newFruit;
+    }
+
+    /**
+     * Returns a part of a tree to its pool. The object must no longer be in the game, observe jumps, sway
+     * in the wind or regrow.
+     *
+     * @param object The object.
+     * @return True if the object is a part of a tree, false otherwise.
+     */
+    public boolean release(GameObject object) {
+        if (object instanceof Leaf) {
+            leaves.release((Leaf) object);
+        } else if (object instanceof Fruit) {
+            fruit.release((Fruit) object);
+        } else if (object instanceof Trunk) {
+            trunks.release((Trunk) object);
+        } else {
+            return false;
+        }
+        return true;
+    }
+}
@@ -2,11 +2,11 @@ package pepse.world.trees;
 
 import danogl.GameObject;
 import danogl.components.GameObjectPhysics;
-import danogl.gui.rendering.RectangleRenderable;
-import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
-import pepse.util.ColorSupplier;
+import pepse.util.Palette;
 import pepse.world.JumpObserver;
+import pepse.world.ObjectTypes;
+import pepse.world.TypedObject;
 
 import java.awt.*;
 
@@ -16,7 +16,7 @@ import java.awt.*;
  *
  * @author Dana Zilca and Noam Nachum
  */
-public class Trunk extends GameObject implements JumpObserver {
+public class Trunk extends GameObject implements JumpObserver, TypedObject {
     /**
      * The color of the trunk.
      */
@@ -37,27 +37,70 @@ public class Trunk extends GameObject implements JumpObserver {
      */
     public static final float TRUNK_WIDTH = 17;
 
+    private final Palette palette;
+    private final JumpAnimation jumpAnimation;
+
     /**
-     * Constructs a Trunk object at the specified position with the given height and renderable.
+     * Constructs a Trunk object at the specified position with the given height, drawn with a palette
+     * variant picked by its position.
      *
      * @param topLeftCorner The top-left corner position vector of the trunk.
      * @param height        The height of the trunk.
-     * @param renderable    The renderable object used to display the trunk.
+     * @param palette       The variants of the TRUNK_COLOR shared by all trunks.
+     * @param jumpAnimation The shared animation counting the avatar's jumps.
      */
-    public Trunk(Vector2 topLeftCorner, float height, Renderable renderable) {
-        super(topLeftCorner, new Vector2(TRUNK_WIDTH, height), renderable);
+    public Trunk(Vector2 topLeftCorner, float height, Palette palette, JumpAnimation jumpAnimation) {
+        super(topLeftCorner,
+                new Vector2(TRUNK_WIDTH, height),
+                palette.at(topLeftCorner.x(), topLeftCorner.y()));
+        this.palette = palette;
+        this.jumpAnimation = jumpAnimation;
         physics().preventIntersectionsFromDirection(Vector2.ZERO);
         physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
     }
 
+    /**
+     * Rebinds a pooled trunk to a new position and height, drawn with the palette variant of the new
+     * position, so it can be reused.
+     *
+     * @param topLeftCorner The new top-left corner position vector of the trunk.
+     * @param height        The new height of the trunk.
+     */
+    public void reset(Vector2 topLeftCorner, float height) {
+        setDimensions(new Vector2(TRUNK_WIDTH, height));
+        setTopLeftCorner(topLeftCorner);
+        renderer().setRenderable(palette.at(topLeftCorner.x(), topLeftCorner.y()));
+    }
+
     /**
      * Callback method invoked when a jump action occurs.
-     * Changes the trunk's renderable to reflect the TRUNK_COLOR.
+     * Changes the trunk's renderable to another variant of the TRUNK_COLOR, picked by the trunk's
+     * position and the number of the jump.
      */
     @Override
     public void onJump() {
-        renderer().setRenderable(new RectangleRenderable(
-                ColorSupplier.approximateColor(TRUNK_COLOR)
-        ));
+        Vector2 topLeft = getTopLeftCorner();
+        renderer().setRenderable(palette.at(topLeft.x(), topLeft.y(), jumpAnimation.jump()));
+    }
+
+    /**
+     * Determines if the trunk should collide with another game object based on its type.
+     *
+     * @param other The other game object.
+     * @return True if a collision should occur, false otherwise.
+     */
+    @Override
+    public boolean shouldCollideWith(GameObject other) {
+        return super.shouldCollideWith(other) && ObjectTypes.collide(ObjectTypes.TRUNK, other);
+    }
+
+    /**
+     * Gets the type of the trunk.
+     *
+     * @return ObjectTypes.TRUNK.
+     */
+    @Override
+    public int getObjectType() {
+        return ObjectTypes.TRUNK;
     }
 }
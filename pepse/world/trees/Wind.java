@@ -0,0 +1,269 @@
+package pepse.world.trees;
+
+import danogl.util.Vector2;
+import pepse.world.AwakeArea;
+import pepse.world.Block;
+import pepse.world.SpatialIndex;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * The Wind sways all the leaves of the world from one shared clock.
+ * Each leaf gets a phase and sway amplitude when it is added, drawn from its position and the seed of
+ * the world, so a world always sways the same way; once per tick the wind evaluates the
+ * angle and width of the leaves from the global time in a single loop, instead of each leaf running
+ * its own scheduled task and transitions. The loop only visits the leaves in the {@link AwakeArea},
+ * found through an index of the leaves by position; since the state of a leaf is a function of the time
+ * alone, it is back in step as soon as it wakes up.
+ *
+ * @author Dana Zilca and Noam Nachum
+ */
+public class Wind {
+    /**
+     * The initial angle factor of the sway.
+     */
+    private static final float SWAY_START_ANGLE = 1f;
+
+    /**
+     * The final angle factor of the sway.
+     */
+    private static final float SWAY_FINAL_ANGLE = 2f;
+
+    /**
+     * The bound of the random values multiplying the sway angle factors.
+     */
+    private static final float SWAY_RANDOM_FLOAT = 50f;
+
+    /**
+     * The duration of a single sway, in seconds.
+     */
+    private static final float SWAY_TIME = 3f;
+
+    /**
+     * The initial width factor of the leaves.
+     */
+    private static final float START_WIDTH = 1f;
+
+    /**
+     * The final width factor of the leaves.
+     */
+    private static final float FINAL_WIDTH = 0.6f;
+
+    /**
+     * The duration of a single width change, in seconds.
+     */
+    private static final float WIDTH_TIME = 5f;
+
+    /**
+     * The number of distinct widths a leaf can take, each with a prebuilt dimensions vector.
+     */
+    private static final int WIDTH_STEPS = 64;
+
+    /**
+     * The dimensions of the leaves for each width step.
+     */
+    private static final Vector2[] DIMENSIONS = createDimensions();
+
+    /**
+     * The initial capacity of the leaf arrays.
+     */
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final AwakeArea awakeArea;
+    private final int seed;
+    private final Random random;
+    private final SpatialIndex<Leaf> positions;
+    private final Consumer<Leaf> sway;
+    private Leaf[] leaves;
+    private float[] centersX;
+    private float[] centersY;
+    private double[] startTimes;
+    private float[] swayDelays;
+    private float[] startAngles;
+    private float[] finalAngles;
+    private int[] widthSteps;
+    private int size;
+    private double time;
+
+    /**
+     * Constructs a Wind with no leaves, that sways every leaf it is given.
+     *
+     * @param seed The seed of the world.
+     */
+    public Wind(int seed) {
+        this(new AwakeArea(), seed);
+    }
+
+    /**
+     * Constructs a Wind with no leaves, that sways only the leaves in an area.
+     *
+     * @param awakeArea The area in which leaves are swayed.
+     * @param seed      The seed of the world.
+     */
+    public Wind(AwakeArea awakeArea, int seed) {
+        this.awakeArea = awakeArea;
+        this.seed = seed;
+        this.random = new Random();
+        this.positions = new SpatialIndex<>();
+        this.sway = this::sway;
+        this.leaves = new Leaf[INITIAL_CAPACITY];
+        this.centersX = new float[INITIAL_CAPACITY];
+        this.centersY = new float[INITIAL_CAPACITY];
+        this.startTimes = new double[INITIAL_CAPACITY];
+        this.swayDelays = new float[INITIAL_CAPACITY];
+        this.startAngles = new float[INITIAL_CAPACITY];
+        this.finalAngles = new float[INITIAL_CAPACITY];
+        this.widthSteps = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Builds the dimensions of the leaves for each width step.
+     *
+     * @return The dimensions, from START_WIDTH to FINAL_WIDTH.
+     */
+    private static Vector2[] createDimensions() {
+        Vector2[] dimensions = new Vector2[WIDTH_STEPS + 1];
+        for (int i = 0; i <= WIDTH_STEPS; i++) {
+            float width = START_WIDTH + (FINAL_WIDTH - START_WIDTH) * i / WIDTH_STEPS;
+            dimensions[i] = Vector2.of(Block.SIZE, Block.SIZE).mult(width);
+        }
+        return dimensions;
+    }
+
+    /**
+     * Starts swaying a leaf. Its angle starts swaying after a random delay of up to a second, with
+     * random amplitudes, while its width starts changing right away. The random values depend on the
+     * leaf's position alone, so they do not change with the order leaves are added in.
+     *
+     * @param leaf The leaf to sway.
+     */
+    public void add(Leaf leaf) {
+        if (leaf.getWindIndex() >= 0) {
+            return;
+        }
+        if (size == leaves.length) {
+            grow();
+        }
+        leaves[size] = leaf;
+        centersX[size] = leaf.getCenter().x();
+        centersY[size] = leaf.getCenter().y();
+        random.setSeed(Objects.hash(centersX[size], centersY[size], seed));
+        startTimes[size] = time;
+        swayDelays[size] = random.nextFloat();
+        startAngles[size] = SWAY_START_ANGLE * random.nextFloat() * SWAY_RANDOM_FLOAT;
+        finalAngles[size] = SWAY_FINAL_ANGLE * random.nextFloat() * SWAY_RANDOM_FLOAT;
+        widthSteps[size] = -1;
+        leaf.setWindIndex(size);
+        positions.add(leaf, centersX[size]);
+        size++;
+    }
+
+    /**
+     * Stops swaying a leaf.
+     *
+     * @param leaf The leaf to stop swaying.
+     */
+    public void remove(Leaf leaf) {
+        int index = leaf.getWindIndex();
+        if (index < 0) {
+            return;
+        }
+        int last = --size;
+        if (index != last) {
+            leaves[index] = leaves[last];
+            centersX[index] = centersX[last];
+            centersY[index] = centersY[last];
+            startTimes[index] = startTimes[last];
+            swayDelays[index] = swayDelays[last];
+            startAngles[index] = startAngles[last];
+            finalAngles[index] = finalAngles[last];
+            widthSteps[index] = widthSteps[last];
+            leaves[index].setWindIndex(index);
+        }
+        leaves[last] = null;
+        leaf.setWindIndex(-1);
+        positions.remove(leaf);
+    }
+
+    /**
+     * Advances the shared clock and updates the angle and width of all the awake leaves.
+     *
+     * @param deltaTime The simulated time of the tick, in seconds.
+     */
+    public void update(float deltaTime) {
+        time += deltaTime;
+        awakeArea.forEachInWidth(positions, sway);
+    }
+
+    /**
+     * Gets the number of swaying leaves.
+     *
+     * @return The number of leaves.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Updates the angle and width of a leaf, if it is awake.
+     *
+     * @param leaf The leaf.
+     */
+    private void sway(Leaf leaf) {
+        int i = leaf.getWindIndex();
+        if (!awakeArea.contains(centersX[i], centersY[i])) {
+            return;
+        }
+        float age = (float) (time - startTimes[i]);
+        float swayAge = age - swayDelays[i];
+        if (swayAge >= 0) {
+            float progress = backAndForth(swayAge, SWAY_TIME);
+            leaf.renderer().setRenderableAngle(startAngles[i] + (finalAngles[i] - startAngles[i]) * progress);
+        }
+        int step = Math.round(cubic(backAndForth(age, WIDTH_TIME)) * WIDTH_STEPS);
+        if (step != widthSteps[i]) {
+            widthSteps[i] = step;
+            leaf.setDimensions(DIMENSIONS[step]);
+        }
+    }
+
+    /**
+     * Computes the progress of a transition that goes back and forth.
+     *
+     * @param age      The time since the transition started.
+     * @param duration The duration of a single direction of the transition.
+     * @return The progress, between 0 and 1.
+     */
+    private static float backAndForth(float age, float duration) {
+        float progress = (age % (2 * duration)) / duration;
+        return progress > 1 ? 2 - progress : progress;
+    }
+
+    /**
+     * Eases the given progress the way Transition.CUBIC_INTERPOLATOR_FLOAT does.
+     *
+     * @param progress The linear progress, between 0 and 1.
+     * @return The eased progress, between 0 and 1.
+     */
+    private static float cubic(float progress) {
+        return progress * progress * (3 - 2 * progress);
+    }
+
+    /**
+     * Doubles the capacity of the leaf arrays.
+     */
+    private void grow() {
+        int capacity = leaves.length * 2;
+        leaves = Arrays.copyOf(leaves, capacity);
+        centersX = Arrays.copyOf(centersX, capacity);
+        centersY = Arrays.copyOf(centersY, capacity);
+        startTimes = Arrays.copyOf(startTimes, capacity);
+        swayDelays = Arrays.copyOf(swayDelays, capacity);
+        startAngles = Arrays.copyOf(startAngles, capacity);
+        finalAngles = Arrays.copyOf(finalAngles, capacity);
+        widthSteps = Arrays.copyOf(widthSteps, capacity);
+    }
+}